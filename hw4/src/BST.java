@@ -1,4 +1,6 @@
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Queue;
@@ -50,6 +52,18 @@ public class BST<T extends Comparable<? super T>> {
         }
     }
 
+    /**
+     * Wraps an existing tree. Used by split and join to hand over nodes
+     * without copying them.
+     *
+     * @param root the root of the tree
+     * @param size the number of nodes in the tree
+     */
+    private BST(BSTNode<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
     /**
      * Add the data as a leaf in the BST. Should traverse the tree to find the
      * appropriate location. If the data is already in the tree, then nothing
@@ -391,20 +405,188 @@ public class BST<T extends Comparable<? super T>> {
      * @return true if the binary tree is a BST, false otherwise
      */
     public static <T extends Comparable<? super T>> boolean isBST(BSTNode<T> treeRoot) {
-        if (treeRoot == null) {
+        return isBSTHelper(treeRoot, null, null);
+    }
+
+    /**
+     * isBST helper method. Checks every node against the bounds set by all
+     * of its ancestors, not just its parent.
+     *
+     * @param <T> the generic typing
+     * @param curr the root of the subtree to check
+     * @param low exclusive lower bound for the subtree, null if unbounded
+     * @param high exclusive upper bound for the subtree, null if unbounded
+     * @return true if the subtree is a BST within the bounds, false otherwise
+     */
+    private static <T extends Comparable<? super T>> boolean isBSTHelper(BSTNode<T> curr, T low, T high) {
+        if (curr == null) {
             return true;
         }
-        BSTNode<T> left = treeRoot.getLeft();
-        BSTNode<T> right = treeRoot.getRight();
-        if (left != null && (treeRoot.getData().compareTo(left.getData()) <= 0 || !isBST(left))) {
+        T data = curr.getData();
+        if ((low != null && data.compareTo(low) <= 0) || (high != null && data.compareTo(high) >= 0)) {
             return false;
         }
-        if (right != null && (treeRoot.getData().compareTo(right.getData()) >= 0 || !isBST(right))) {
-            return false;
+        return isBSTHelper(curr.getLeft(), low, data) && isBSTHelper(curr.getRight(), data, high);
+    }
+
+
+    /**
+     * Returns a read-only snapshot of the tree packed into a single array in
+     * level order (Eytzinger layout). Lookups on the snapshot walk an array
+     * instead of chasing node pointers. Later changes to the tree are not
+     * reflected in the snapshot.
+     *
+     * Should run in O(n).
+     *
+     * @return a frozen copy of the tree
+     */
+    public FrozenBST<T> freeze() {
+        return new FrozenBST<>(inorder());
+    }
+
+    /**
+     * Splits the tree into two trees around the given key. The first tree
+     * holds all data less than key and the second all data greater than or
+     * equal to key. The key does not have to be in the tree.
+     *
+     * Nodes are moved rather than copied: the search path for key is cut
+     * into a left and a right spine and every subtree hanging off the path is
+     * reattached as a whole, so restructuring is O(h). This tree is cleared.
+     *
+     * Nodes don't store subtree sizes, so the sizes of the two parts are
+     * found by counting both parts in lockstep until the smaller one is
+     * exhausted, which costs O(min(left size, right size)).
+     *
+     * @throws IllegalArgumentException if the key is null
+     * @param key the data to split around
+     * @return a list of two trees, the part less than key followed by the
+     * part greater than or equal to key
+     */
+    public List<BST<T>> split(T key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to split BST around null key");
+        }
+        // left tree hangs off leftHeader.right, right tree off rightHeader.left
+        BSTNode<T> leftHeader = new BSTNode<>(null);
+        BSTNode<T> rightHeader = new BSTNode<>(null);
+        BSTNode<T> leftTail = leftHeader;
+        BSTNode<T> rightTail = rightHeader;
+        BSTNode<T> curr = root;
+        while (curr != null) {
+            if (curr.getData().compareTo(key) < 0) {
+                leftTail.setRight(curr);
+                leftTail = curr;
+                curr = curr.getRight();
+            } else {
+                rightTail.setLeft(curr);
+                rightTail = curr;
+                curr = curr.getLeft();
+            }
+        }
+        leftTail.setRight(null);
+        rightTail.setLeft(null);
+
+        BSTNode<T> leftRoot = leftHeader.getRight();
+        BSTNode<T> rightRoot = rightHeader.getLeft();
+        int leftSize = lockstepCount(leftRoot, rightRoot, size);
+        List<BST<T>> res = new ArrayList<>(2);
+        res.add(new BST<>(leftRoot, leftSize));
+        res.add(new BST<>(rightRoot, size - leftSize));
+        clear();
+        return res;
+    }
+
+    /**
+     * Counts the nodes of two trees one node at a time each until either
+     * runs out, then derives the size of the first tree from the total.
+     *
+     * @param first the root of the tree to size
+     * @param second the root of the other tree
+     * @param total the combined number of nodes in both trees
+     * @return the number of nodes in the first tree
+     */
+    private int lockstepCount(BSTNode<T> first, BSTNode<T> second, int total) {
+        Deque<BSTNode<T>> firstStack = new ArrayDeque<>();
+        Deque<BSTNode<T>> secondStack = new ArrayDeque<>();
+        if (first != null) {
+            firstStack.push(first);
+        }
+        if (second != null) {
+            secondStack.push(second);
         }
-        return true;
+        int firstCount = 0;
+        int secondCount = 0;
+        while (!firstStack.isEmpty() && !secondStack.isEmpty()) {
+            firstCount += visit(firstStack);
+            secondCount += visit(secondStack);
+        }
+        return firstStack.isEmpty() ? firstCount : total - secondCount;
     }
 
+    /**
+     * lockstepCount helper method. Pops one node and pushes its children.
+     *
+     * @param stack the pending nodes of a preorder walk
+     * @return the number of nodes visited, always 1
+     */
+    private int visit(Deque<BSTNode<T>> stack) {
+        BSTNode<T> next = stack.pop();
+        if (next.getLeft() != null) {
+            stack.push(next.getLeft());
+        }
+        if (next.getRight() != null) {
+            stack.push(next.getRight());
+        }
+        return 1;
+    }
+
+    /**
+     * Joins two trees where every data in left is less than every data in
+     * right. The maximum of left is unlinked and becomes the new root with
+     * the rest of left and all of right as its subtrees.
+     *
+     * Should run in O(h). Both input trees are cleared.
+     *
+     * @throws IllegalArgumentException if either tree is null or the trees
+     * overlap
+     * @param <T> the generic typing
+     * @param left the tree holding the smaller data
+     * @param right the tree holding the larger data
+     * @return a tree holding the data of both trees
+     */
+    public static <T extends Comparable<? super T>> BST<T> join(BST<T> left, BST<T> right) {
+        if (left == null || right == null) {
+            throw new IllegalArgumentException("Attempting to join null BST");
+        }
+        if (left.root == null || right.root == null) {
+            BST<T> res = left.root == null ? new BST<>(right.root, right.size) : new BST<>(left.root, left.size);
+            left.clear();
+            right.clear();
+            return res;
+        }
+        BSTNode<T> maxParent = null;
+        BSTNode<T> max = left.root;
+        while (max.getRight() != null) {
+            maxParent = max;
+            max = max.getRight();
+        }
+        BSTNode<T> min = right.root;
+        while (min.getLeft() != null) {
+            min = min.getLeft();
+        }
+        if (max.getData().compareTo(min.getData()) >= 0) {
+            throw new IllegalArgumentException("Attempting to join BSTs with overlapping data");
+        }
+        if (maxParent != null) {
+            maxParent.setRight(max.getLeft());
+            max.setLeft(left.root);
+        }
+        max.setRight(right.root);
+        BST<T> res = new BST<>(max, left.size + right.size);
+        left.clear();
+        right.clear();
+        return res;
+    }
 
     /**
      * Clears the tree.
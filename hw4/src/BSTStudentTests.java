@@ -1,3 +1,4 @@
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -7,6 +8,8 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.Collections;
 
 /**
  * Sample JUnit test cases for BST.
@@ -346,4 +349,182 @@ public class BSTStudentTests {
 
         assertEquals(2, bst.height());
     }
+
+    @Test(timeout = 2000)
+    public void testSplayTree() {
+        SplayTree<Integer> splay = new SplayTree<>();
+        splay.add(24);
+        splay.add(1);
+        splay.add(7);
+        splay.add(12);
+        splay.add(94);
+        splay.add(58);
+
+        // the last accessed data is always the root
+        assertEquals(6, splay.size());
+        assertEquals((Integer) 58, splay.getRoot().getData());
+        assertEquals((Integer) 7, splay.get(7));
+        assertEquals((Integer) 7, splay.getRoot().getData());
+        assertTrue(splay.contains(94));
+        assertEquals((Integer) 94, splay.getRoot().getData());
+        assertEquals(false, splay.contains(50));
+
+        assertEquals((Integer) 24, splay.remove(24));
+        assertEquals(5, splay.size());
+        assertEquals(false, splay.contains(24));
+
+        List<Integer> inorder = new ArrayList<>();
+        inorder.add(1);
+        inorder.add(7);
+        inorder.add(12);
+        inorder.add(58);
+        inorder.add(94);
+        assertEquals(inorder, splay.inorder());
+
+        // sorted inserts leave a single left path, deep enough that
+        // recursive traversals would overflow the stack
+        splay.clear();
+        int n = 100000;
+        List<Integer> ascending = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            splay.add(i);
+            ascending.add(i);
+        }
+        assertEquals(n - 1, splay.height());
+        assertEquals(ascending, splay.inorder());
+        assertEquals(ascending, splay.postorder());
+        List<Integer> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        assertEquals(descending, splay.preorder());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFreeze() {
+        /*
+                       24
+                    /      \
+                   1        94        ->   [_, 24, 7, 73, 1, 12, 58, 94]
+                    \      /
+                     7    58
+                      \    \
+                      12    73
+        */
+        bst.add(24);
+        bst.add(1);
+        bst.add(7);
+        bst.add(12);
+        bst.add(94);
+        bst.add(58);
+        bst.add(73);
+
+        FrozenBST<Integer> frozen = bst.freeze();
+        Integer[] expected = {null, 24, 7, 73, 1, 12, 58, 94};
+        assertArrayEquals(expected, frozen.getBackingArray());
+        assertEquals(7, frozen.size());
+        assertEquals(bst.inorder(), frozen.inorder());
+        for (Integer data : bst.inorder()) {
+            assertTrue(frozen.contains(data));
+            assertEquals(data, frozen.get(data));
+        }
+        assertEquals(false, frozen.contains(0));
+        assertEquals(false, frozen.contains(50));
+        assertEquals(false, frozen.contains(100));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testValidator() {
+        /*
+                       24
+                    /      \
+                   1        94
+                    \      /
+                     7    58
+                      \    \
+                      12    73
+        */
+        bst.add(24);
+        bst.add(1);
+        bst.add(7);
+        bst.add(12);
+        bst.add(94);
+        bst.add(58);
+        bst.add(73);
+
+        BSTValidator.Report report = BSTValidator.validate(bst.getRoot());
+        assertTrue(report.isBST());
+        assertEquals(bst.height(), report.getHeight());
+        assertEquals(bst.size(), report.getSize());
+        assertArrayEquals(new long[] {1, 2, 2, 2}, report.getDepthHistogram());
+        assertTrue(BSTValidator.sampledIsBST(bst.getRoot(), 10, new Random(1332)));
+
+        /*
+                    50
+                  /    \   30 is in order with its parent but not with 50
+                25      75
+                       /
+                      30
+        */
+        BSTNode<Integer> root = new BSTNode<>(50);
+        root.setLeft(new BSTNode<>(25));
+        root.setRight(new BSTNode<>(75));
+        root.getRight().setLeft(new BSTNode<>(30));
+
+        assertEquals(false, BST.isBST(root));
+        assertEquals(false, BSTValidator.validate(root).isBST());
+        assertEquals(false, BSTValidator.sampledIsBST(root, 20, new Random(1332)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSplitJoin() {
+        /*
+                       24
+                    /      \                     24
+                   1        94           1      /  \
+                    \      /       ->     \   12    94
+                     7    58               7        /
+                      \    \                       58
+                      12    73                       \
+                                                      73
+        */
+        bst.add(24);
+        bst.add(1);
+        bst.add(7);
+        bst.add(12);
+        bst.add(94);
+        bst.add(58);
+        bst.add(73);
+
+        List<BST<Integer>> parts = bst.split(12);
+        BST<Integer> left = parts.get(0);
+        BST<Integer> right = parts.get(1);
+        assertEquals(0, bst.size());
+        assertEquals(2, left.size());
+        assertEquals(5, right.size());
+        assertEquals((Integer) 1, left.getRoot().getData());
+        assertEquals((Integer) 7, left.getRoot().getRight().getData());
+        assertEquals((Integer) 24, right.getRoot().getData());
+        assertEquals((Integer) 12, right.getRoot().getLeft().getData());
+        assertTrue(BST.isBST(left.getRoot()));
+        assertTrue(BST.isBST(right.getRoot()));
+
+        /*
+                         7
+                        / \
+                       1   24
+                          /  \
+                        12    94
+                              /
+                             58
+                               \
+                                73
+        */
+        BST<Integer> joined = BST.join(left, right);
+        assertEquals(7, joined.size());
+        assertEquals((Integer) 7, joined.getRoot().getData());
+        assertEquals((Integer) 1, joined.getRoot().getLeft().getData());
+        assertEquals((Integer) 24, joined.getRoot().getRight().getData());
+        assertTrue(BST.isBST(joined.getRoot()));
+        assertEquals(0, left.size());
+        assertEquals(0, right.size());
+    }
 }
\ No newline at end of file
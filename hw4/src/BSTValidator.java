@@ -0,0 +1,316 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk validation and statistics for large binary search trees.
+ *
+ * validate walks the whole tree once on the common ForkJoinPool and reports
+ * whether the BST order property holds (every node is checked against the
+ * bounds set by all of its ancestors), the height, the size and how many
+ * nodes sit at each depth. sampledIsBST is a cheap spot check that only
+ * follows a few random root-to-leaf paths.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class BSTValidator {
+
+    /**
+     * Subtrees rooted at this depth or deeper are walked sequentially by the
+     * task that reaches them. Forking above it gives up to 2^FORK_DEPTH
+     * tasks, plenty to keep every worker busy on a balanced tree.
+     */
+    private static final int FORK_DEPTH = 10;
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private BSTValidator() {
+    }
+
+    /**
+     * Validates the tree rooted at treeRoot and collects its statistics in
+     * parallel.
+     *
+     * Should run in O(n) total work. Unlike BST.isBST this does not stop at
+     * the first violation so that the statistics always cover the whole tree.
+     *
+     * @param <T> the generic typing
+     * @param treeRoot the root of the binary tree to check
+     * @return the validation result and statistics of the tree
+     */
+    public static <T extends Comparable<? super T>> Report validate(BSTNode<T> treeRoot) {
+        if (treeRoot == null) {
+            return new Report(true, 0, new long[0]);
+        }
+        Accumulator result = ForkJoinPool.commonPool().invoke(new ValidateTask<>(treeRoot, 0, null, null));
+        return new Report(result.ordered, result.size, Arrays.copyOf(result.depthCounts, result.maxDepth + 1));
+    }
+
+    /**
+     * Spot checks the tree by following randomly chosen root-to-leaf paths.
+     * Every node on a path is checked against the bounds of all of its
+     * ancestors, so a true result means none of the sampled paths contain a
+     * violation rather than that the whole tree is a BST.
+     *
+     * Should run in O(samples * h).
+     *
+     * @param <T> the generic typing
+     * @param treeRoot the root of the binary tree to check
+     * @param samples the number of paths to follow
+     * @param random source of the left/right choices
+     * @throws IllegalArgumentException if samples is negative or random is null
+     * @return false if a violation was found, true otherwise
+     */
+    public static <T extends Comparable<? super T>> boolean sampledIsBST(BSTNode<T> treeRoot, int samples, Random random) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("Attempting to sample a negative number of paths");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Attempting to sample paths with null random");
+        }
+        for (int i = 0; i < samples; i++) {
+            T low = null;
+            T high = null;
+            BSTNode<T> curr = treeRoot;
+            while (curr != null) {
+                T data = curr.getData();
+                if ((low != null && data.compareTo(low) <= 0) || (high != null && data.compareTo(high) >= 0)) {
+                    return false;
+                }
+                boolean goLeft = curr.getRight() == null
+                        || (curr.getLeft() != null && random.nextBoolean());
+                if (goLeft) {
+                    high = data;
+                    curr = curr.getLeft();
+                } else {
+                    low = data;
+                    curr = curr.getRight();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The result of validating a tree.
+     */
+    public static class Report {
+        private final boolean isBST;
+        private final int size;
+        private final long[] depthHistogram;
+
+        /**
+         * Creates a report.
+         *
+         * @param isBST whether the tree satisfies the BST order property
+         * @param size number of nodes in the tree
+         * @param depthHistogram number of nodes at each depth
+         */
+        private Report(boolean isBST, int size, long[] depthHistogram) {
+            this.isBST = isBST;
+            this.size = size;
+            this.depthHistogram = depthHistogram;
+        }
+
+        /**
+         * Returns whether the tree satisfies the BST order property.
+         *
+         * @return true if the tree is a BST, false otherwise
+         */
+        public boolean isBST() {
+            return isBST;
+        }
+
+        /**
+         * Returns the height of the tree.
+         *
+         * @return the height of the tree, -1 if the tree is empty
+         */
+        public int getHeight() {
+            return depthHistogram.length - 1;
+        }
+
+        /**
+         * Returns the number of nodes in the tree.
+         *
+         * @return the number of nodes in the tree
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the number of nodes at each depth. Index 0 holds the root.
+         *
+         * @return copy of the depth histogram, of length height + 1
+         */
+        public long[] getDepthHistogram() {
+            return depthHistogram.clone();
+        }
+    }
+
+    /**
+     * Mutable statistics for the part of the tree walked by one task. Depths
+     * are absolute, so results from sibling tasks merge by plain addition.
+     */
+    private static class Accumulator {
+        private boolean ordered = true;
+        private int size;
+        private int maxDepth = -1;
+        private long[] depthCounts = new long[16];
+
+        /**
+         * Counts a node at the given depth.
+         *
+         * @param depth the depth of the node
+         */
+        private void count(int depth) {
+            if (depth >= depthCounts.length) {
+                depthCounts = Arrays.copyOf(depthCounts, Math.max(2 * depthCounts.length, depth + 1));
+            }
+            depthCounts[depth]++;
+            maxDepth = Math.max(maxDepth, depth);
+            size++;
+        }
+
+        /**
+         * Adds the statistics of other into this accumulator.
+         *
+         * @param other the accumulator to merge in
+         */
+        private void merge(Accumulator other) {
+            ordered &= other.ordered;
+            size += other.size;
+            if (other.maxDepth >= depthCounts.length) {
+                depthCounts = Arrays.copyOf(depthCounts, other.maxDepth + 1);
+            }
+            for (int i = 0; i <= other.maxDepth; i++) {
+                depthCounts[i] += other.depthCounts[i];
+            }
+            maxDepth = Math.max(maxDepth, other.maxDepth);
+        }
+    }
+
+    /**
+     * Validates one subtree, forking on both children while above FORK_DEPTH.
+     */
+    private static class ValidateTask<T extends Comparable<? super T>> extends RecursiveTask<Accumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final BSTNode<T> node;
+        private final int depth;
+        private final T low;
+        private final T high;
+
+        /**
+         * Creates a task for the subtree rooted at node.
+         *
+         * @param node the root of the subtree, never null
+         * @param depth the depth of node in the whole tree
+         * @param low exclusive lower bound for the subtree, null if unbounded
+         * @param high exclusive upper bound for the subtree, null if unbounded
+         */
+        private ValidateTask(BSTNode<T> node, int depth, T low, T high) {
+            this.node = node;
+            this.depth = depth;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (depth >= FORK_DEPTH) {
+                return walk();
+            }
+            Accumulator acc = new Accumulator();
+            T data = node.getData();
+            acc.ordered = inBounds(data, low, high);
+            acc.count(depth);
+            ValidateTask<T> left = node.getLeft() == null ? null
+                    : new ValidateTask<>(node.getLeft(), depth + 1, low, data);
+            ValidateTask<T> right = node.getRight() == null ? null
+                    : new ValidateTask<>(node.getRight(), depth + 1, data, high);
+            if (left != null) {
+                left.fork();
+            }
+            if (right != null) {
+                acc.merge(right.compute());
+            }
+            if (left != null) {
+                acc.merge(left.join());
+            }
+            return acc;
+        }
+
+        /**
+         * Walks the subtree sequentially. Uses an explicit stack so that a
+         * degenerate subtree with millions of levels can't overflow the
+         * thread's call stack.
+         *
+         * @return the statistics of the subtree
+         */
+        private Accumulator walk() {
+            Accumulator acc = new Accumulator();
+            Deque<Frame<T>> stack = new ArrayDeque<>();
+            stack.push(new Frame<>(node, depth, low, high));
+            while (!stack.isEmpty()) {
+                Frame<T> frame = stack.pop();
+                T data = frame.node.getData();
+                if (!inBounds(data, frame.low, frame.high)) {
+                    acc.ordered = false;
+                }
+                acc.count(frame.depth);
+                if (frame.node.getRight() != null) {
+                    stack.push(new Frame<>(frame.node.getRight(), frame.depth + 1, data, frame.high));
+                }
+                if (frame.node.getLeft() != null) {
+                    stack.push(new Frame<>(frame.node.getLeft(), frame.depth + 1, frame.low, data));
+                }
+            }
+            return acc;
+        }
+    }
+
+    /**
+     * A pending node in a sequential walk along with its depth and bounds.
+     */
+    private static class Frame<T extends Comparable<? super T>> {
+        private final BSTNode<T> node;
+        private final int depth;
+        private final T low;
+        private final T high;
+
+        /**
+         * Creates a frame.
+         *
+         * @param node the pending node
+         * @param depth the depth of node in the whole tree
+         * @param low exclusive lower bound for node, null if unbounded
+         * @param high exclusive upper bound for node, null if unbounded
+         */
+        private Frame(BSTNode<T> node, int depth, T low, T high) {
+            this.node = node;
+            this.depth = depth;
+            this.low = low;
+            this.high = high;
+        }
+    }
+
+    /**
+     * Checks data against exclusive bounds.
+     *
+     * @param <T> the generic typing
+     * @param data the data to check
+     * @param low exclusive lower bound, null if unbounded
+     * @param high exclusive upper bound, null if unbounded
+     * @return true if low < data < high
+     */
+    private static <T extends Comparable<? super T>> boolean inBounds(T data, T low, T high) {
+        return (low == null || data.compareTo(low) > 0) && (high == null || data.compareTo(high) < 0);
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only snapshot of a BST packed into a single array.
+ *
+ * The data is stored in Eytzinger (level-order) layout: index 1 is the root
+ * and the children of index k are at 2k and 2k + 1, just like the backing
+ * array of a heap. The top levels of the tree share a handful of cache
+ * lines, and a search descends with index arithmetic instead of following
+ * node pointers scattered around the heap.
+ *
+ * Create one with {@link BST#freeze()}.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class FrozenBST<T extends Comparable<? super T>> {
+    private final T[] backingArray;
+    private final int size;
+
+    /**
+     * Packs already sorted, duplicate-free data into Eytzinger layout.
+     *
+     * @param sorted the data in ascending order
+     */
+    FrozenBST(List<T> sorted) {
+        size = sorted.size();
+        backingArray = (T[]) new Comparable[size + 1];
+        fill(sorted, 0, 1);
+    }
+
+    /**
+     * Fills the subtree rooted at index k with an inorder walk, which places
+     * the sorted data in level order.
+     *
+     * @param sorted the data in ascending order
+     * @param next index in sorted of the next data to place
+     * @param k the index of the subtree root in the backing array
+     * @return index in sorted of the next data to place after this subtree
+     */
+    private int fill(List<T> sorted, int next, int k) {
+        if (k > size) {
+            return next;
+        }
+        next = fill(sorted, next, 2 * k);
+        backingArray[k] = sorted.get(next++);
+        return fill(sorted, next, 2 * k + 1);
+    }
+
+    /**
+     * Returns the index of the smallest data greater than or equal to the
+     * given data.
+     *
+     * The loop always runs to the bottom of the tree and the only choice per
+     * level is folded into the next index, so there is no early exit for the
+     * branch predictor to miss. Each step appends one bit to k (1 for right),
+     * so the last left turn taken - the lower bound - is recovered by
+     * shifting off the trailing right turns plus that left turn itself.
+     *
+     * O(log n).
+     *
+     * @param data the data to search for
+     * @return index of the lower bound in the backing array, 0 if every data
+     * in the snapshot is smaller than the given data
+     */
+    private int lowerBound(T data) {
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (backingArray[k].compareTo(data) < 0 ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Returns the data in the snapshot matching the parameter passed in.
+     *
+     * O(log n).
+     *
+     * @throws IllegalArgumentException if the data is null
+     * @throws java.util.NoSuchElementException if the data is not found
+     * @param data the data to search for
+     * @return the data in the snapshot equal to the parameter
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to get null data from FrozenBST");
+        }
+        int k = lowerBound(data);
+        if (k == 0 || backingArray[k].compareTo(data) != 0) {
+            throw new NoSuchElementException("Attempting to get data not present in the FrozenBST");
+        }
+        return backingArray[k];
+    }
+
+    /**
+     * Returns whether or not data equivalent to the given parameter is
+     * contained within the snapshot.
+     *
+     * O(log n).
+     *
+     * @throws IllegalArgumentException if the data is null
+     * @param data the data to search for
+     * @return whether or not the parameter is contained within the snapshot
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to check if FrozenBST contains null data");
+        }
+        int k = lowerBound(data);
+        return k != 0 && backingArray[k].compareTo(data) == 0;
+    }
+
+    /**
+     * Should run in O(n).
+     *
+     * @return an inorder traversal of the snapshot
+     */
+    public List<T> inorder() {
+        List<T> res = new ArrayList<>(size);
+        inorderHelper(res, 1);
+        return res;
+    }
+
+    /**
+     * inorder helper method.
+     *
+     * @param traversal a running list of the traversed data
+     * @param k index of the subtree root in the backing array
+     */
+    private void inorderHelper(List<T> traversal, int k) {
+        if (k > size) {
+            return;
+        }
+        inorderHelper(traversal, 2 * k);
+        traversal.add(backingArray[k]);
+        inorderHelper(traversal, 2 * k + 1);
+    }
+
+    /**
+     * Returns the number of data in the snapshot.
+     *
+     * @return the number of data in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the snapshot. Index 0 is always empty.
+     *
+     * @return the backing array of the snapshot
+     */
+    public Object[] getBackingArray() {
+        return backingArray;
+    }
+}
@@ -0,0 +1,395 @@
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * A self-adjusting binary search tree with the same interface as BST.
+ *
+ * Every access (add, get, contains, remove) splays the accessed node to the
+ * root using top-down splaying, so frequently accessed data stays near the
+ * root. Operations run in amortized O(log n), and skewed access patterns
+ * run faster than that since hot data is found after only a few comparisons.
+ *
+ * A splay tree can be a single path after a run of sorted inserts, so
+ * splaying, the traversals and height are all iterative and never recurse
+ * to the depth of the tree.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class SplayTree<T extends Comparable<? super T>> {
+    private BSTNode<T> root;
+    private int size;
+
+    /**
+     * Initializes an empty splay tree.
+     */
+    public SplayTree() {
+    }
+
+    /**
+     * Initializes the splay tree with the data in the Collection. The data
+     * is added in the same order it is in the Collection.
+     *
+     * @param collection the data to add to the tree
+     * @throws IllegalArgumentException if collection or any element in
+     * collection is null
+     */
+    public SplayTree(Collection<T> collection) {
+        if (collection == null) {
+            throw new IllegalArgumentException("Attempting to initialize SplayTree with null collection");
+        }
+        try {
+            for (T data : collection) {
+                add(data);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Attempting to initialize SplayTree with collection containing null data");
+        }
+    }
+
+    /**
+     * Adds the data to the tree and splays it to the root. If the data is
+     * already in the tree, the existing node is splayed to the root and
+     * nothing is added.
+     *
+     * Amortized O(log n).
+     *
+     * @throws IllegalArgumentException if the data is null
+     * @param data the data to be added
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to add null data to SplayTree");
+        }
+        if (root == null) {
+            root = new BSTNode<>(data);
+            size = 1;
+            return;
+        }
+        root = splay(root, data);
+        int cmp = data.compareTo(root.getData());
+        if (cmp == 0) {
+            return;
+        }
+        BSTNode<T> node = new BSTNode<>(data);
+        if (cmp < 0) {
+            node.setLeft(root.getLeft());
+            node.setRight(root);
+            root.setLeft(null);
+        } else {
+            node.setRight(root.getRight());
+            node.setLeft(root);
+            root.setRight(null);
+        }
+        root = node;
+        size++;
+    }
+
+    /**
+     * Removes the data from the tree. The data is splayed to the root, then
+     * the root is replaced by the join of its two subtrees.
+     *
+     * Amortized O(log n).
+     *
+     * @throws IllegalArgumentException if the data is null
+     * @throws java.util.NoSuchElementException if the data is not found
+     * @param data the data to remove from the tree
+     * @return the data removed from the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to remove null data from SplayTree");
+        }
+        if (!splayToRoot(data)) {
+            throw new NoSuchElementException("Attempting to remove data not present in SplayTree");
+        }
+        T removed = root.getData();
+        if (root.getLeft() == null) {
+            root = root.getRight();
+        } else {
+            // splaying the left subtree for data brings its max to the top,
+            // which leaves the new root without a right child
+            BSTNode<T> right = root.getRight();
+            root = splay(root.getLeft(), data);
+            root.setRight(right);
+        }
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returns the data in the tree matching the parameter passed in and
+     * splays it to the root.
+     *
+     * Amortized O(log n).
+     *
+     * @throws IllegalArgumentException if the data is null
+     * @throws java.util.NoSuchElementException if the data is not found
+     * @param data the data to search for in the tree
+     * @return the data in the tree equal to the parameter
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to get null data from SplayTree");
+        }
+        if (!splayToRoot(data)) {
+            throw new NoSuchElementException("Attempting to get data not present in the SplayTree");
+        }
+        return root.getData();
+    }
+
+    /**
+     * Returns whether or not data equivalent to the given parameter is
+     * contained within the tree. The last node visited is splayed to the root.
+     *
+     * Amortized O(log n).
+     *
+     * @throws IllegalArgumentException if the data is null
+     * @param data the data to search for in the tree
+     * @return whether or not the parameter is contained within the tree
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to check if SplayTree contains null data");
+        }
+        return splayToRoot(data);
+    }
+
+    /**
+     * Splays the tree around data.
+     *
+     * @param data the data to splay around
+     * @return true if the root holds data after splaying
+     */
+    private boolean splayToRoot(T data) {
+        if (root == null) {
+            return false;
+        }
+        root = splay(root, data);
+        return data.compareTo(root.getData()) == 0;
+    }
+
+    /**
+     * Top-down splay. Walks down from curr, rotating on zig-zig steps and
+     * hanging the nodes passed over onto a left tree (less than data) and a
+     * right tree (greater than data). The last node visited becomes the new
+     * root with the two side trees reattached as its children.
+     *
+     * Iterative, so the O(n) depth of a cold tree can't overflow the stack.
+     *
+     * @param curr the root of the subtree to splay
+     * @param data the data to splay around
+     * @return the new root of the subtree: the node containing data if it is
+     * present, otherwise the last node on the search path
+     */
+    private BSTNode<T> splay(BSTNode<T> curr, T data) {
+        // header.right is the left tree, header.left is the right tree
+        BSTNode<T> header = new BSTNode<>(null);
+        BSTNode<T> leftMax = header;
+        BSTNode<T> rightMin = header;
+        while (true) {
+            int cmp = data.compareTo(curr.getData());
+            if (cmp < 0) {
+                if (curr.getLeft() == null) {
+                    break;
+                }
+                if (data.compareTo(curr.getLeft().getData()) < 0) {
+                    // zig-zig: rotate right
+                    BSTNode<T> child = curr.getLeft();
+                    curr.setLeft(child.getRight());
+                    child.setRight(curr);
+                    curr = child;
+                    if (curr.getLeft() == null) {
+                        break;
+                    }
+                }
+                // link right
+                rightMin.setLeft(curr);
+                rightMin = curr;
+                curr = curr.getLeft();
+            } else if (cmp > 0) {
+                if (curr.getRight() == null) {
+                    break;
+                }
+                if (data.compareTo(curr.getRight().getData()) > 0) {
+                    // zag-zag: rotate left
+                    BSTNode<T> child = curr.getRight();
+                    curr.setRight(child.getLeft());
+                    child.setLeft(curr);
+                    curr = child;
+                    if (curr.getRight() == null) {
+                        break;
+                    }
+                }
+                // link left
+                leftMax.setRight(curr);
+                leftMax = curr;
+                curr = curr.getRight();
+            } else {
+                break;
+            }
+        }
+        // reassemble
+        leftMax.setRight(curr.getLeft());
+        rightMin.setLeft(curr.getRight());
+        curr.setLeft(header.getRight());
+        curr.setRight(header.getLeft());
+        return curr;
+    }
+
+    /**
+     * Should run in O(n). Iterative, like splay, so a degenerate tree can't
+     * overflow the stack.
+     *
+     * @return a preorder traversal of the tree
+     */
+    public List<T> preorder() {
+        List<T> res = new ArrayList<>();
+        Deque<BSTNode<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            BSTNode<T> curr = stack.pop();
+            res.add(curr.getData());
+            if (curr.getRight() != null) {
+                stack.push(curr.getRight());
+            }
+            if (curr.getLeft() != null) {
+                stack.push(curr.getLeft());
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Should run in O(n). Iterative, like splay, so a degenerate tree can't
+     * overflow the stack.
+     *
+     * @return an inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> res = new ArrayList<>();
+        Deque<BSTNode<T>> stack = new ArrayDeque<>();
+        BSTNode<T> curr = root;
+        while (curr != null || !stack.isEmpty()) {
+            while (curr != null) {
+                stack.push(curr);
+                curr = curr.getLeft();
+            }
+            curr = stack.pop();
+            res.add(curr.getData());
+            curr = curr.getRight();
+        }
+        return res;
+    }
+
+    /**
+     * Should run in O(n). Iterative, like splay, so a degenerate tree can't
+     * overflow the stack. Visits node, right, left and reverses the result,
+     * which is left, right, node.
+     *
+     * @return a postorder traversal of the tree
+     */
+    public List<T> postorder() {
+        List<T> res = new ArrayList<>();
+        Deque<BSTNode<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            BSTNode<T> curr = stack.pop();
+            res.add(curr.getData());
+            if (curr.getLeft() != null) {
+                stack.push(curr.getLeft());
+            }
+            if (curr.getRight() != null) {
+                stack.push(curr.getRight());
+            }
+        }
+        Collections.reverse(res);
+        return res;
+    }
+
+    /**
+     * Should run in O(n).
+     *
+     * @return a level order traversal of the tree
+     */
+    public List<T> levelorder() {
+        List<T> res = new ArrayList<>();
+        Queue<BSTNode<T>> queue = new LinkedList<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            BSTNode<T> next = queue.remove();
+            if (next == null) {
+                continue;
+            }
+            res.add(next.getData());
+            queue.add(next.getLeft());
+            queue.add(next.getRight());
+        }
+        return res;
+    }
+
+    /**
+     * Clears the tree.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Calculate and return the height of the root of the tree. Counts the
+     * levels of a level order walk instead of recursing, so a degenerate
+     * tree can't overflow the stack.
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        int height = -1;
+        Queue<BSTNode<T>> level = new LinkedList<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                BSTNode<T> curr = level.remove();
+                if (curr.getLeft() != null) {
+                    level.add(curr.getLeft());
+                }
+                if (curr.getRight() != null) {
+                    level.add(curr.getRight());
+                }
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the number of elements in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return the root of the tree
+     */
+    public BSTNode<T> getRoot() {
+        return root;
+    }
+}
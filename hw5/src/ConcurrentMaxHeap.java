@@ -0,0 +1,234 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A max priority queue that many threads can add to and remove from at once.
+ *
+ * The items are spread over several MaxHeaps, each guarded by its own lock
+ * (a "multi-queue"). add puts the item into a random heap whose lock is
+ * free. remove looks at the current max of two random heaps and removes
+ * from the one with the larger max. Threads rarely contend for the same
+ * lock, so throughput keeps growing with the number of threads instead of
+ * flattening out behind a single lock.
+ *
+ * Strict vs relaxed ordering: with more than one heap, remove is not
+ * guaranteed to return the global max, only the larger of two sampled
+ * maxes. In practice the returned item is close to the top (its expected
+ * rank is O(number of heaps)), which is fine for schedulers and best-first
+ * searches but not for algorithms that need exact order. Creating the queue
+ * with a single heap gives strict ordering with one global lock.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class ConcurrentMaxHeap<T extends Comparable<? super T>> {
+
+    // failed tryLocks in one call before it blocks on a lock instead
+    public static final int MAX_FAILED_TRY_LOCKS = 4;
+
+    private final MaxHeap<T>[] heaps;
+    private final ReentrantLock[] locks;
+    // max of each heap, published after every change so it can be read without the lock
+    private final AtomicReferenceArray<T> maxes;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a relaxed queue with two heaps per available processor.
+     */
+    public ConcurrentMaxHeap() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a queue spread over the given number of heaps. One heap gives
+     * strict ordering; more heaps give more throughput and looser ordering.
+     *
+     * @param heapCount the number of heaps
+     * @throws IllegalArgumentException if heapCount is not positive
+     */
+    public ConcurrentMaxHeap(int heapCount) {
+        if (heapCount <= 0) {
+            throw new IllegalArgumentException("Attempting to create ConcurrentMaxHeap with non-positive heap count");
+        }
+        heaps = (MaxHeap<T>[]) new MaxHeap[heapCount];
+        locks = new ReentrantLock[heapCount];
+        for (int i = 0; i < heapCount; i++) {
+            heaps[i] = new MaxHeap<>();
+            locks[i] = new ReentrantLock();
+        }
+        maxes = new AtomicReferenceArray<>(heapCount);
+    }
+
+    /**
+     * Adds an item to a random heap whose lock is free.
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @param item the item to be added
+     */
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to add null data to ConcurrentMaxHeap");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int failedTries = 0;
+        while (true) {
+            int i = random.nextInt(heaps.length);
+            if (!lock(i, failedTries)) {
+                failedTries++;
+                continue;
+            }
+            try {
+                heaps[i].add(item);
+                maxes.set(i, heaps[i].getMax());
+                size.incrementAndGet();
+                return;
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns a large item, the larger of the maxes of two
+     * randomly chosen heaps. With a single heap this is always the max item.
+     *
+     * If the sampled heaps keep coming up empty, every heap is checked in
+     * turn before giving up, so remove only fails when no heap held an item
+     * at the moment it was checked.
+     *
+     * @throws java.util.NoSuchElementException if the queue is empty
+     * @return the removed item
+     */
+    public T remove() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int emptySamples = 0;
+        int failedTries = 0;
+        while (emptySamples < heaps.length) {
+            int i = random.nextInt(heaps.length);
+            int j = random.nextInt(heaps.length);
+            T first = maxes.get(i);
+            T second = maxes.get(j);
+            int pick = second != null && (first == null || second.compareTo(first) > 0) ? j : i;
+            if (maxes.get(pick) == null) {
+                emptySamples++;
+                continue;
+            }
+            if (!lock(pick, failedTries)) {
+                failedTries++;
+                continue;
+            }
+            try {
+                if (!heaps[pick].isEmpty()) {
+                    return removeFrom(pick);
+                }
+            } finally {
+                locks[pick].unlock();
+            }
+        }
+        for (int i = 0; i < heaps.length; i++) {
+            locks[i].lock();
+            try {
+                if (!heaps[i].isEmpty()) {
+                    return removeFrom(i);
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        throw new NoSuchElementException("Attempting to remove the max item from an empty ConcurrentMaxHeap");
+    }
+
+    /**
+     * Locks heap i. While there are other heaps to try and fewer than
+     * MAX_FAILED_TRY_LOCKS attempts have failed, it only tries the lock so
+     * the caller can move on to another heap. After that, or when there is
+     * a single heap, it waits for the lock rather than spinning.
+     *
+     * @param i the index of the heap
+     * @param failedTries the number of failed tryLocks so far in this call
+     * @return whether or not the lock is now held
+     */
+    private boolean lock(int i, int failedTries) {
+        if (heaps.length == 1 || failedTries >= MAX_FAILED_TRY_LOCKS) {
+            locks[i].lock();
+            return true;
+        }
+        return locks[i].tryLock();
+    }
+
+    /**
+     * Removes the max of a non-empty heap. The caller must hold its lock.
+     *
+     * @param i the index of the heap
+     * @return the removed item
+     */
+    private T removeFrom(int i) {
+        T removed = heaps[i].remove();
+        maxes.set(i, heaps[i].getMax());
+        size.decrementAndGet();
+        return removed;
+    }
+
+    /**
+     * Returns the max item across all heaps as of when each heap was last
+     * changed. Other threads may change the queue while this runs.
+     *
+     * @return the maximum element, null if the queue is empty
+     */
+    public T getMax() {
+        T max = null;
+        for (int i = 0; i < heaps.length; i++) {
+            T curr = maxes.get(i);
+            if (curr != null && (max == null || curr.compareTo(max) > 0)) {
+                max = curr;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns if the queue is empty or not.
+     *
+     * @return true if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * Clears every heap. Items added concurrently with clear may survive it.
+     */
+    public void clear() {
+        for (int i = 0; i < heaps.length; i++) {
+            locks[i].lock();
+            try {
+                size.addAndGet(-heaps[i].size());
+                heaps[i].clear();
+                maxes.set(i, null);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items in the queue.
+     *
+     * @return number of items in the queue
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the number of heaps the items are spread over.
+     *
+     * @return the number of heaps
+     */
+    public int getHeapCount() {
+        return heaps.length;
+    }
+}
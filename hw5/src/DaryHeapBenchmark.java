@@ -0,0 +1,92 @@
+import java.util.Random;
+
+/**
+ * Compares add and remove throughput of DaryMaxHeap for branching factors
+ * of 2, 4 and 8.
+ *
+ * Each round adds the same random items to an empty heap and then removes
+ * them all, timing the two phases separately with System.nanoTime. The
+ * first WARMUP_ROUNDS rounds let the JIT compile both paths and are not
+ * reported; the rest are averaged. Run it with
+ *
+ *     java DaryHeapBenchmark [items] [rounds] [seed]
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class DaryHeapBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int[] BRANCHINGS = {2, 4, 8};
+
+    /**
+     * Runs the benchmark and prints one line per branching factor.
+     *
+     * @param args optional number of items, number of timed rounds and
+     * random seed
+     */
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1332;
+
+        Random random = new Random(seed);
+        Integer[] data = new Integer[items];
+        for (int i = 0; i < items; i++) {
+            data[i] = random.nextInt();
+        }
+
+        System.out.printf("%d items, %d timed rounds, seed %d%n", items, rounds, seed);
+        for (int branching : BRANCHINGS) {
+            long[] nanos = new long[2];
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                time(branching, data, nanos);
+            }
+            nanos[0] = 0;
+            nanos[1] = 0;
+            for (int round = 0; round < rounds; round++) {
+                time(branching, data, nanos);
+            }
+            double perOp = (double) rounds * items;
+            System.out.printf("d = %d  add %6.1f ns/op  remove %6.1f ns/op%n", branching,
+                    nanos[0] / perOp, nanos[1] / perOp);
+        }
+    }
+
+    /**
+     * Adds every item to an empty heap and then removes them all, adding the
+     * time each phase took to nanos.
+     *
+     * @param branching the branching factor of the heap
+     * @param data the items to add, in order
+     * @param nanos total add time at index 0 and remove time at index 1, in
+     * nanoseconds
+     */
+    private static void time(int branching, Integer[] data, long[] nanos) {
+        DaryMaxHeap<Integer> heap = new DaryMaxHeap<>(branching);
+        long start = System.nanoTime();
+        for (Integer item : data) {
+            heap.add(item);
+        }
+        long added = System.nanoTime();
+        long sink = 0;
+        while (!heap.isEmpty()) {
+            sink += heap.remove();
+        }
+        long removed = System.nanoTime();
+        nanos[0] += added - start;
+        nanos[1] += removed - added;
+        consume(sink);
+    }
+
+    /**
+     * Keeps the JIT from dropping the removes as dead code.
+     *
+     * @param sink the sum of the items removed
+     */
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,245 @@
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+/**
+ * A max heap where every node has up to d children instead of 2.
+ *
+ * A wider heap is shallower (log base d of n levels), so add does fewer
+ * comparisons and remove touches fewer levels, and the d children of a node
+ * sit next to each other in the backing array. The trade-off is that remove
+ * compares against d children per level. Branching factors of 4 and 8 tend
+ * to work well; 2 behaves exactly like MaxHeap.
+ *
+ * Like MaxHeap, index 0 of the backing array is left empty. The children of
+ * index i are at d * (i - 1) + 2 through d * (i - 1) + d + 1.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class DaryMaxHeap<T extends Comparable<? super T>> {
+
+    public static final int INITIAL_CAPACITY = 13;
+
+    private final int branching;
+    private T[] backingArray;
+    private int size;
+
+    /**
+     * Creates an empty heap with the given branching factor and an initial
+     * capacity of INITIAL_CAPACITY for the backing array.
+     *
+     * @param branching the number of children per node
+     * @throws IllegalArgumentException if branching is less than 2
+     */
+    public DaryMaxHeap(int branching) {
+        if (branching < 2) {
+            throw new IllegalArgumentException("Attempting to create DaryMaxHeap with branching factor less than 2");
+        }
+        this.branching = branching;
+        backingArray = (T[]) new Comparable[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a properly ordered heap from a set of initial values using the
+     * bottom up BuildHeap algorithm. The backing array is sized to fit the
+     * data exactly.
+     *
+     * @param branching the number of children per node
+     * @param data a list of data to initialize the heap with
+     * @throws IllegalArgumentException if branching is less than 2, or if
+     * data or any element in data is null
+     */
+    public DaryMaxHeap(int branching, ArrayList<T> data) {
+        if (branching < 2) {
+            throw new IllegalArgumentException("Attempting to create DaryMaxHeap with branching factor less than 2");
+        }
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to insert null ArrayList into DaryMaxHeap");
+        }
+        if (data.contains(null)) {
+            throw new IllegalArgumentException("Attempting to insert ArrayList with null data into DaryMaxHeap");
+        }
+        this.branching = branching;
+        int n = data.size();
+        backingArray = (T[]) new Comparable[n + 1];
+        for (int i = 0; i < n; i++) {
+            backingArray[i + 1] = data.get(i);
+        }
+        size = n;
+        // parentOf(1) is 0 but parentOf(0) is not, so a heap of fewer than
+        // two items has nothing to sift and skips the loop
+        for (int i = size < 2 ? 0 : parentOf(size); i > 0; i--) {
+            siftDown(i, backingArray[i]);
+        }
+    }
+
+    /**
+     * Returns the index of the parent of index.
+     *
+     * @param index index of a non-root node
+     * @return the index of its parent
+     */
+    private int parentOf(int index) {
+        return (index - 2) / branching + 1;
+    }
+
+    /**
+     * Returns the index of the first child of index.
+     *
+     * @param index index of a node
+     * @return the index of its first child, which may be past size
+     */
+    private int firstChildOf(int index) {
+        return branching * (index - 1) + 2;
+    }
+
+    /**
+     * Adds an item to the heap. If the backing array is full, its capacity
+     * is doubled.
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @param item the item to be added to the heap
+     */
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to add null data to DaryMaxHeap");
+        }
+        if (size + 1 == backingArray.length) {
+            T[] newBackingArray = (T[]) new Comparable[2 * backingArray.length];
+            for (int i = 0; i <= size; i++) {
+                newBackingArray[i] = backingArray[i];
+            }
+            backingArray = newBackingArray;
+        }
+        siftUp(++size, item);
+    }
+
+    /**
+     * sifts item up the tree from the hole at index, moving smaller parents
+     * down into the hole and writing item once at the end.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift up from the hole
+     */
+    private void siftUp(int index, T item) {
+        while (index > 1) {
+            int parentIndex = parentOf(index);
+            T parent = backingArray[parentIndex];
+            if (item.compareTo(parent) <= 0) {
+                break;
+            }
+            backingArray[index] = parent;
+            index = parentIndex;
+        }
+        backingArray[index] = item;
+    }
+
+    /**
+     * sifts item down the tree from the hole at index, moving the largest
+     * child up into the hole at each level and writing item once at the end.
+     * Ties between children go to the leftmost one.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift down from the hole
+     */
+    private void siftDown(int index, T item) {
+        while (true) {
+            int first = firstChildOf(index);
+            if (first > size) {
+                break;
+            }
+            int last = Math.min(first + branching - 1, size);
+            int childIndex = first;
+            T child = backingArray[first];
+            for (int i = first + 1; i <= last; i++) {
+                if (backingArray[i].compareTo(child) > 0) {
+                    childIndex = i;
+                    child = backingArray[i];
+                }
+            }
+            if (item.compareTo(child) >= 0) {
+                break;
+            }
+            backingArray[index] = child;
+            index = childIndex;
+        }
+        backingArray[index] = item;
+    }
+
+    /**
+     * Removes and returns the max item of the heap. The capacity of the
+     * backing array is never decreased.
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the removed item
+     */
+    public T remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to remove the max item from an empty DaryMaxHeap");
+        }
+        T removed = backingArray[1];
+        T last = backingArray[size];
+        backingArray[size--] = null;
+        if (size > 0) {
+            siftDown(1, last);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the maximum element in the heap.
+     *
+     * @return the maximum element, null if the heap is empty
+     */
+    public T getMax() {
+        if (size == 0) {
+            return null;
+        }
+        return backingArray[1];
+    }
+
+    /**
+     * Returns if the heap is empty or not.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap and resets the backing array to a new array of
+     * capacity {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        backingArray = (T[]) new Comparable[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns the number of children per node.
+     *
+     * @return the branching factor of the heap
+     */
+    public int getBranching() {
+        return branching;
+    }
+
+    /**
+     * Returns the size of the heap.
+     *
+     * @return number of items in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the heap.
+     *
+     * @return the backing array of the heap
+     */
+    public Object[] getBackingArray() {
+        return backingArray;
+    }
+}
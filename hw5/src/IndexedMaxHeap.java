@@ -0,0 +1,309 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A max heap that tracks the index of every item in its backing array, so
+ * that a specific item can be found, reprioritized or removed in O(log n)
+ * instead of rebuilding the heap.
+ *
+ * Items are identified by equals and hashCode, and ordered by compareTo.
+ * Items with a mutable priority must keep equals and hashCode independent of
+ * it: change the priority, then call update so the heap can restore order.
+ * Duplicate items are not allowed.
+ *
+ * The backing array uses the same layout as MaxHeap: index 0 is empty and
+ * the children of index i are at 2i and 2i + 1.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class IndexedMaxHeap<T extends Comparable<? super T>> {
+
+    public static final int INITIAL_CAPACITY = 13;
+
+    private T[] backingArray;
+    private int size;
+    private Map<T, Integer> indices;
+
+    /**
+     * Creates an empty heap with an initial capacity of INITIAL_CAPACITY for
+     * the backing array.
+     */
+    public IndexedMaxHeap() {
+        backingArray = (T[]) new Comparable[INITIAL_CAPACITY];
+        indices = new HashMap<>();
+    }
+
+    /**
+     * Creates a properly ordered heap from a set of initial values using the
+     * bottom up BuildHeap algorithm.
+     *
+     * @param data a list of data to initialize the heap with
+     * @throws IllegalArgumentException if data or any element in data is
+     * null, or if data contains duplicates
+     */
+    public IndexedMaxHeap(ArrayList<T> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to insert null ArrayList into IndexedMaxHeap");
+        }
+        if (data.contains(null)) {
+            throw new IllegalArgumentException("Attempting to insert ArrayList with null data into IndexedMaxHeap");
+        }
+        int n = data.size();
+        backingArray = (T[]) new Comparable[n + 1];
+        indices = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            T item = data.get(i);
+            if (indices.put(item, i + 1) != null) {
+                throw new IllegalArgumentException("Attempting to insert ArrayList with duplicate data into IndexedMaxHeap");
+            }
+            backingArray[i + 1] = item;
+        }
+        size = n;
+        for (int i = size / 2; i > 0; i--) {
+            siftDown(i, backingArray[i]);
+        }
+    }
+
+    /**
+     * Adds an item to the heap. If the backing array is full, its capacity
+     * is doubled.
+     *
+     * O(log n).
+     *
+     * @throws IllegalArgumentException if the item is null or already in
+     * the heap
+     * @param item the item to be added to the heap
+     */
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to add null data to IndexedMaxHeap");
+        }
+        if (indices.containsKey(item)) {
+            throw new IllegalArgumentException("Attempting to add data already present in IndexedMaxHeap");
+        }
+        if (size + 1 == backingArray.length) {
+            T[] newBackingArray = (T[]) new Comparable[2 * backingArray.length];
+            for (int i = 0; i <= size; i++) {
+                newBackingArray[i] = backingArray[i];
+            }
+            backingArray = newBackingArray;
+        }
+        siftUp(++size, item);
+    }
+
+    /**
+     * Restores the heap order around an item whose priority has changed.
+     * Works for both increases and decreases.
+     *
+     * O(log n).
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @throws java.util.NoSuchElementException if the item is not in the heap
+     * @param item the item whose priority changed
+     */
+    public void update(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to update null data in IndexedMaxHeap");
+        }
+        Integer index = indices.get(item);
+        if (index == null) {
+            throw new NoSuchElementException("Attempting to update data not present in IndexedMaxHeap");
+        }
+        reposition(index, backingArray[index]);
+    }
+
+    /**
+     * Returns whether or not the item is in the heap.
+     *
+     * O(1).
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @param item the item to search for
+     * @return true if the item is in the heap, false otherwise
+     */
+    public boolean contains(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to check if IndexedMaxHeap contains null data");
+        }
+        return indices.containsKey(item);
+    }
+
+    /**
+     * Removes and returns the max item of the heap. The capacity of the
+     * backing array is never decreased.
+     *
+     * O(log n).
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the removed item
+     */
+    public T remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to remove the max item from an empty IndexedMaxHeap");
+        }
+        return removeAt(1);
+    }
+
+    /**
+     * Removes the given item from anywhere in the heap.
+     *
+     * O(log n).
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @throws java.util.NoSuchElementException if the item is not in the heap
+     * @param item the item to remove
+     * @return the item that was stored in the heap
+     */
+    public T remove(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to remove null data from IndexedMaxHeap");
+        }
+        Integer index = indices.get(item);
+        if (index == null) {
+            throw new NoSuchElementException("Attempting to remove data not present in IndexedMaxHeap");
+        }
+        return removeAt(index);
+    }
+
+    /**
+     * Removes the item at index by moving the last item into its place and
+     * sifting that item whichever way it needs to go.
+     *
+     * @param index the index of the item to remove
+     * @return the removed item
+     */
+    private T removeAt(int index) {
+        T removed = backingArray[index];
+        indices.remove(removed);
+        T last = backingArray[size];
+        backingArray[size--] = null;
+        if (index <= size) {
+            reposition(index, last);
+        }
+        return removed;
+    }
+
+    /**
+     * Places item into the hole at index, sifting up if it is larger than
+     * the parent of index and down otherwise.
+     *
+     * @param index the index of the hole
+     * @param item the item to place
+     */
+    private void reposition(int index, T item) {
+        if (index > 1 && item.compareTo(backingArray[index / 2]) > 0) {
+            siftUp(index, item);
+        } else {
+            siftDown(index, item);
+        }
+    }
+
+    /**
+     * sifts item up the tree from the hole at index, moving smaller parents
+     * down into the hole and writing item once at the end.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift up from the hole
+     */
+    private void siftUp(int index, T item) {
+        while (index > 1) {
+            int parentIndex = index / 2;
+            T parent = backingArray[parentIndex];
+            if (item.compareTo(parent) <= 0) {
+                break;
+            }
+            place(index, parent);
+            index = parentIndex;
+        }
+        place(index, item);
+    }
+
+    /**
+     * sifts item down the tree from the hole at index, moving the larger
+     * child up into the hole at each level and writing item once at the end.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift down from the hole
+     */
+    private void siftDown(int index, T item) {
+        int half = size / 2;
+        while (index <= half) {
+            int childIndex = index * 2;
+            T child = backingArray[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex <= size && backingArray[rightIndex].compareTo(child) > 0) {
+                childIndex = rightIndex;
+                child = backingArray[rightIndex];
+            }
+            if (item.compareTo(child) >= 0) {
+                break;
+            }
+            place(index, child);
+            index = childIndex;
+        }
+        place(index, item);
+    }
+
+    /**
+     * Writes item to index and records its new index.
+     *
+     * @param index the index to write to
+     * @param item the item to write
+     */
+    private void place(int index, T item) {
+        backingArray[index] = item;
+        indices.put(item, index);
+    }
+
+    /**
+     * Returns the maximum element in the heap.
+     *
+     * @return the maximum element, null if the heap is empty
+     */
+    public T getMax() {
+        if (size == 0) {
+            return null;
+        }
+        return backingArray[1];
+    }
+
+    /**
+     * Returns if the heap is empty or not.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap and resets the backing array to a new array of
+     * capacity {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        backingArray = (T[]) new Comparable[INITIAL_CAPACITY];
+        indices.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the heap.
+     *
+     * @return number of items in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the heap.
+     *
+     * @return the backing array of the heap
+     */
+    public Object[] getBackingArray() {
+        return backingArray;
+    }
+}
@@ -0,0 +1,344 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Merges sorted run files into a single sorted file in one streaming pass.
+ *
+ * Every run is a file of newline separated records sorted in ascending
+ * order of their bytes (compared unsigned, which for UTF-8 text is the same
+ * as code point order). A MaxHeap holds one cursor per run, ordered so that
+ * the cursor with the smallest current record is on top, which turns the
+ * max heap into the min heap a merge needs. Runs are read and the output is
+ * written through buffers carved out of one memory budget: the budget is
+ * split evenly between the runs and the output, up to MAX_BUFFER_SIZE
+ * each, so merging hundreds of runs costs no more memory than merging a
+ * few, only smaller transfers.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class KWayMerge {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    public static final int MAX_BUFFER_SIZE = 1 << 20;
+
+    private static final byte NEWLINE = '\n';
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private KWayMerge() {
+    }
+
+    /**
+     * Merges the runs into output within DEFAULT_MEMORY_BUDGET bytes of
+     * buffers.
+     *
+     * @param runs the sorted run files to merge
+     * @param output the file to write the merged records to, replaced if it
+     * already exists
+     * @throws IllegalArgumentException if runs, any run or output is null
+     * @throws IOException if a run can't be read or output can't be written
+     * @return statistics about the merge
+     */
+    public static Stats merge(List<Path> runs, Path output) throws IOException {
+        return merge(runs, output, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Merges the runs into output. The k runs and the output each get a
+     * buffer of memoryBudget / (k + 1) bytes, at least one byte and at most
+     * MAX_BUFFER_SIZE.
+     *
+     * O(n log k) for n records over k runs.
+     *
+     * @param runs the sorted run files to merge
+     * @param output the file to write the merged records to, replaced if it
+     * already exists
+     * @param memoryBudget the total size in bytes of all read and write
+     * buffers
+     * @throws IllegalArgumentException if runs, any run or output is null,
+     * or if memoryBudget is not positive
+     * @throws IOException if a run can't be read or output can't be written
+     * @return statistics about the merge
+     */
+    public static Stats merge(List<Path> runs, Path output, long memoryBudget) throws IOException {
+        if (runs == null || runs.contains(null)) {
+            throw new IllegalArgumentException("Attempting to merge null run files");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Attempting to merge runs into null output file");
+        }
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Attempting to merge runs with non-positive memory budget");
+        }
+        int bufferSize = (int) Math.max(1, Math.min(MAX_BUFFER_SIZE, memoryBudget / (runs.size() + 1)));
+        long start = System.nanoTime();
+        long rows = 0;
+        long bytesRead = 0;
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            MaxHeap<RunReader> heap = new MaxHeap<>();
+            for (Path run : runs) {
+                RunReader reader = new RunReader(FileChannel.open(run, StandardOpenOption.READ), bufferSize);
+                readers.add(reader);
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+            ByteBuffer outBuffer = ByteBuffer.allocate(bufferSize);
+            while (!heap.isEmpty()) {
+                RunReader smallest = heap.getMax();
+                write(out, outBuffer, smallest.record, smallest.length);
+                rows++;
+                // the cursor stays on top while it advances, then sinks to
+                // its new place in one sift
+                if (smallest.advance()) {
+                    heap.replaceMax(smallest);
+                } else {
+                    heap.remove();
+                }
+            }
+            outBuffer.flip();
+            while (outBuffer.hasRemaining()) {
+                out.write(outBuffer);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                bytesRead += reader.bytesRead;
+                reader.channel.close();
+            }
+        }
+        return new Stats(rows, bytesRead, System.nanoTime() - start);
+    }
+
+    /**
+     * Appends a record and a newline to the output buffer, flushing the
+     * buffer to the channel whenever it fills up.
+     *
+     * @param out the output channel
+     * @param buffer the output buffer
+     * @param record the bytes of the record
+     * @param length the number of bytes of record in use
+     * @throws IOException if the channel can't be written
+     */
+    private static void write(FileChannel out, ByteBuffer buffer, byte[] record, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                flush(out, buffer);
+            }
+            int chunk = Math.min(length - offset, buffer.remaining());
+            buffer.put(record, offset, chunk);
+            offset += chunk;
+        }
+        if (!buffer.hasRemaining()) {
+            flush(out, buffer);
+        }
+        buffer.put(NEWLINE);
+    }
+
+    /**
+     * Writes out everything in the buffer and empties it.
+     *
+     * @param out the output channel
+     * @param buffer the buffer to flush
+     * @throws IOException if the channel can't be written
+     */
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Statistics about a finished merge.
+     */
+    public static class Stats {
+        private final long rows;
+        private final long bytesRead;
+        private final long elapsedNanos;
+
+        /**
+         * Creates merge statistics.
+         *
+         * @param rows number of records written
+         * @param bytesRead number of bytes read from all runs
+         * @param elapsedNanos wall clock duration of the merge
+         */
+        private Stats(long rows, long bytesRead, long elapsedNanos) {
+            this.rows = rows;
+            this.bytesRead = bytesRead;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the number of records written.
+         *
+         * @return the number of records written
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Returns the number of bytes read from all runs.
+         *
+         * @return the number of bytes read
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Returns the wall clock duration of the merge.
+         *
+         * @return the duration in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the merge throughput in records.
+         *
+         * @return records written per second
+         */
+        public double getRowsPerSecond() {
+            return rows * 1e9 / Math.max(elapsedNanos, 1);
+        }
+
+        /**
+         * Returns the merge throughput in bytes read.
+         *
+         * @return bytes read per second
+         */
+        public double getBytesReadPerSecond() {
+            return bytesRead * 1e9 / Math.max(elapsedNanos, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows, %d bytes in %.3f s (%.0f rows/s, %.0f bytes/s)",
+                rows, bytesRead, elapsedNanos / 1e9, getRowsPerSecond(), getBytesReadPerSecond());
+        }
+    }
+
+    /**
+     * A cursor over the records of one run. Cursors compare in reverse order
+     * of their current records so the MaxHeap keeps the smallest on top.
+     */
+    private static class RunReader implements Comparable<RunReader> {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long bytesRead;
+        private boolean eof;
+        private byte[] record = new byte[64];
+        private int length;
+
+        /**
+         * Creates a cursor positioned before the first record.
+         *
+         * @param channel the channel of the run file
+         * @param bufferSize the size in bytes of the read buffer
+         */
+        private RunReader(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            buffer.flip();
+        }
+
+        /**
+         * Reads the next record into record. A final record without a
+         * trailing newline still counts.
+         *
+         * @throws IOException if the run can't be read
+         * @return true if a record was read, false at the end of the run
+         */
+        private boolean advance() throws IOException {
+            length = 0;
+            boolean any = false;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    if (!fill()) {
+                        return any;
+                    }
+                }
+                any = true;
+                byte[] array = buffer.array();
+                int from = buffer.position();
+                int to = buffer.limit();
+                int end = from;
+                while (end < to && array[end] != NEWLINE) {
+                    end++;
+                }
+                append(array, from, end - from);
+                if (end < to) {
+                    buffer.position(end + 1);
+                    return true;
+                }
+                buffer.position(to);
+            }
+        }
+
+        /**
+         * Refills the read buffer from the channel.
+         *
+         * @throws IOException if the run can't be read
+         * @return false if the run has no more bytes
+         */
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            buffer.clear();
+            int read = channel.read(buffer);
+            while (read == 0) {
+                read = channel.read(buffer);
+            }
+            buffer.flip();
+            if (read < 0) {
+                eof = true;
+                return false;
+            }
+            bytesRead += read;
+            return true;
+        }
+
+        /**
+         * Appends bytes to the current record, growing it if needed.
+         *
+         * @param src the array to copy from
+         * @param offset the index of the first byte to copy
+         * @param count the number of bytes to copy
+         */
+        private void append(byte[] src, int offset, int count) {
+            if (length + count > record.length) {
+                record = Arrays.copyOf(record, Math.max(2 * record.length, length + count));
+            }
+            System.arraycopy(src, offset, record, length, count);
+            length += count;
+        }
+
+        @Override
+        public int compareTo(RunReader other) {
+            int n = Math.min(length, other.length);
+            for (int i = 0; i < n; i++) {
+                int cmp = (other.record[i] & 0xff) - (record[i] & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return other.length - length;
+        }
+    }
+}
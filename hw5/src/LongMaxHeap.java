@@ -0,0 +1,242 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A max heap of primitive long keys.
+ *
+ * Keys live in a long[] so nothing is boxed and comparisons are plain
+ * primitive comparisons. Each key can optionally carry an int payload kept
+ * in a parallel int[] (an id, or an index into the caller's own array of
+ * objects). No objects are allocated by add or remove other than when the
+ * backing arrays grow.
+ *
+ * The layout matches MaxHeap: index 0 is empty and the children of index i
+ * are at 2i and 2i + 1.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class LongMaxHeap {
+
+    public static final int INITIAL_CAPACITY = 13;
+
+    private long[] keys;
+    private int[] payloads;
+    private int size;
+
+    /**
+     * Creates an empty heap of keys without payloads.
+     */
+    public LongMaxHeap() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty heap with an initial capacity of INITIAL_CAPACITY.
+     *
+     * @param withPayloads whether every key carries an int payload
+     */
+    public LongMaxHeap(boolean withPayloads) {
+        keys = new long[INITIAL_CAPACITY];
+        if (withPayloads) {
+            payloads = new int[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Adds a key to a heap without payloads.
+     *
+     * @throws IllegalStateException if the heap was created with payloads
+     * @param key the key to add
+     */
+    public void add(long key) {
+        if (payloads != null) {
+            throw new IllegalStateException("Attempting to add key without payload to LongMaxHeap with payloads");
+        }
+        checkCapacity();
+        siftUp(++size, key, 0);
+    }
+
+    /**
+     * Adds a key and its payload to a heap with payloads.
+     *
+     * @throws IllegalStateException if the heap was created without payloads
+     * @param key the key to add
+     * @param payload the payload carried by the key
+     */
+    public void add(long key, int payload) {
+        if (payloads == null) {
+            throw new IllegalStateException("Attempting to add payload to LongMaxHeap without payloads");
+        }
+        checkCapacity();
+        siftUp(++size, key, payload);
+    }
+
+    /**
+     * Doubles the capacity of the backing arrays if they are full.
+     */
+    private void checkCapacity() {
+        if (size + 1 < keys.length) {
+            return;
+        }
+        keys = Arrays.copyOf(keys, 2 * keys.length);
+        if (payloads != null) {
+            payloads = Arrays.copyOf(payloads, keys.length);
+        }
+    }
+
+    /**
+     * sifts key up the tree from the hole at index, moving smaller parents
+     * down into the hole and writing key once at the end.
+     *
+     * @param index the index of the hole
+     * @param key the key to sift up
+     * @param payload the payload of key, ignored without payloads
+     */
+    private void siftUp(int index, long key, int payload) {
+        while (index > 1) {
+            int parentIndex = index / 2;
+            if (key <= keys[parentIndex]) {
+                break;
+            }
+            move(parentIndex, index);
+            index = parentIndex;
+        }
+        keys[index] = key;
+        if (payloads != null) {
+            payloads[index] = payload;
+        }
+    }
+
+    /**
+     * sifts key down the tree from the hole at index, moving the larger child
+     * up into the hole at each level and writing key once at the end.
+     *
+     * @param index the index of the hole
+     * @param key the key to sift down
+     * @param payload the payload of key, ignored without payloads
+     */
+    private void siftDown(int index, long key, int payload) {
+        int half = size / 2;
+        while (index <= half) {
+            int childIndex = index * 2;
+            if (childIndex < size && keys[childIndex + 1] > keys[childIndex]) {
+                childIndex++;
+            }
+            if (key >= keys[childIndex]) {
+                break;
+            }
+            move(childIndex, index);
+            index = childIndex;
+        }
+        keys[index] = key;
+        if (payloads != null) {
+            payloads[index] = payload;
+        }
+    }
+
+    /**
+     * Copies the key and payload at one index to another.
+     *
+     * @param from the index to copy from
+     * @param to the index to copy to
+     */
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        if (payloads != null) {
+            payloads[to] = payloads[from];
+        }
+    }
+
+    /**
+     * Removes and returns the max key of the heap. Read its payload with
+     * getMaxPayload first if needed. The capacity of the backing arrays is
+     * never decreased.
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the removed key
+     */
+    public long remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to remove the max key from an empty LongMaxHeap");
+        }
+        long removed = keys[1];
+        long lastKey = keys[size];
+        int lastPayload = payloads == null ? 0 : payloads[size];
+        size--;
+        if (size > 0) {
+            siftDown(1, lastKey, lastPayload);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the maximum key in the heap.
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the maximum key
+     */
+    public long getMax() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to get the max key from an empty LongMaxHeap");
+        }
+        return keys[1];
+    }
+
+    /**
+     * Returns the payload of the maximum key in the heap.
+     *
+     * @throws IllegalStateException if the heap was created without payloads
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the payload of the maximum key
+     */
+    public int getMaxPayload() {
+        if (payloads == null) {
+            throw new IllegalStateException("Attempting to get payload from LongMaxHeap without payloads");
+        }
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to get the max payload from an empty LongMaxHeap");
+        }
+        return payloads[1];
+    }
+
+    /**
+     * Returns if the heap is empty or not.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap and resets the backing arrays to a capacity of
+     * {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        if (payloads != null) {
+            payloads = new int[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the heap.
+     *
+     * @return number of keys in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of keys. Only indices 1 through size hold
+     * keys in the heap.
+     *
+     * @return the backing array of keys
+     */
+    public long[] getBackingArray() {
+        return keys;
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.NoSuchElementException;
 
 /**
@@ -64,60 +65,58 @@ public class MaxHeap<T extends Comparable<? super T>> {
 
     /**
      * Uses the buildheap algorithm to build the tree from the bottom up.
-     * Ensures the heap property by recursively replacing out of order parent nodes with max(child1, child2). 
-     * smaller nodes are effectively sifted down the tree. 
+     * Ensures the heap property by sifting every parent node down past its larger children.
      */
     private void heapifyBackingArray() {
-        int startIdx = size / 2;
-        for (int i = startIdx; i > 0; i--) {
-            heapify(i);
-        }
+        heapifySubtree(1);
     }
 
     /**
-     * Recursively ensures the heap property is satisfied for a given node and it's children.
+     * Heapifies the subtree rooted at index depth first: both child subtrees
+     * are finished before index is sifted down. The result is the same as
+     * sifting indices size / 2 down to 1 in order, but once a subtree is
+     * small enough to fit in cache all of its work happens there, instead of
+     * every level streaming through the whole array.
+     *
+     * @param index the root of the subtree to heapify
      */
-    private void heapify(int index) {
-        int leftIndex = index*2;
-        int rightIndex = index*2+1;
-        if (leftIndex > size) {
-            // no children
-            return;
-        }
-        if (leftIndex == size) {
-            // left child only
-            if (backingArray[index].compareTo(backingArray[leftIndex]) < 0) {
-                // parent < left child
-                swap(index, leftIndex);
-            }
-            return;
-        }
-        // left and right child
-        T parent = backingArray[index];
-        T left = backingArray[leftIndex];
-        T right = backingArray[rightIndex];
-        if (parent.compareTo(left) >= 0 && parent.compareTo(right) >= 0) {
+    private void heapifySubtree(int index) {
+        if (index > size / 2) {
+            // leaf
             return;
         }
-        if (left.compareTo(right) >= 0) {
-            swap(index, leftIndex);
-            heapify(leftIndex);
-        } else {
-            swap(index, rightIndex);
-            heapify(rightIndex);
-        }
+        heapifySubtree(index * 2);
+        heapifySubtree(index * 2 + 1);
+        siftDown(index, backingArray[index]);
     }
 
     /**
-     * Ensures the heap property is satisfied for a given node.
+     * Places item in the subtree rooted at index, treating index as a hole.
+     * Larger children are moved up into the hole one level at a time and
+     * item is written once where it finally belongs, so each level costs one
+     * array write instead of the three of a swap.
      *
-     * @param i first index to swap
-     * @param i second index to swap
+     * @param index the index of the hole
+     * @param item the item to sift down from the hole
      */
-    private void swap(int i, int j) {
-        T tmp = backingArray[i];
-        backingArray[i] = backingArray[j];
-        backingArray[j] = tmp;
+    private void siftDown(int index, T item) {
+        int half = size / 2;
+        while (index <= half) {
+            // index has at least a left child
+            int childIndex = index * 2;
+            T child = backingArray[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex <= size && backingArray[rightIndex].compareTo(child) > 0) {
+                childIndex = rightIndex;
+                child = backingArray[rightIndex];
+            }
+            if (item.compareTo(child) >= 0) {
+                break;
+            }
+            backingArray[index] = child;
+            index = childIndex;
+        }
+        backingArray[index] = item;
     }
 
     /**
@@ -131,22 +130,68 @@ public class MaxHeap<T extends Comparable<? super T>> {
         if (item == null) {
             throw new IllegalArgumentException("Attempting to add null data to MaxHeap");
         }
-        checkCapacity();
-        backingArray[++size] = item;
-        siftUp(size);
+        ensureCapacity(size + 2);
+        siftUp(++size, item);
+    }
+
+    /**
+     * Adds every item in the collection to the heap.
+     *
+     * The backing array grows at most once, to double its capacity or to
+     * exactly the required capacity if that is larger, so adding a large
+     * batch to an empty heap does not over-allocate.
+     *
+     * A small batch is sifted up one item at a time. A batch of more than
+     * about log n items is appended as a block and only the subtrees that
+     * received new items are re-heapified, bottom up: the ancestors of the
+     * block at each level form a contiguous range of indices, so this costs
+     * O(k + log^2 n) instead of O(k log n).
+     *
+     * @throws IllegalArgumentException if items or any element in items is null
+     * @param items the items to be added to the heap
+     */
+    public void addAll(Collection<? extends T> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("Attempting to add null collection to MaxHeap");
+        }
+        for (T item : items) {
+            if (item == null) {
+                throw new IllegalArgumentException("Attempting to add collection with null data to MaxHeap");
+            }
+        }
+        int k = items.size();
+        int newSize = size + k;
+        ensureCapacity(newSize + 1);
+        int log = 32 - Integer.numberOfLeadingZeros(newSize);
+        if (k <= log) {
+            for (T item : items) {
+                siftUp(++size, item);
+            }
+            return;
+        }
+        int first = size + 1;
+        for (T item : items) {
+            backingArray[++size] = item;
+        }
+        // new items are leaves; walk their ancestors one level at a time
+        for (int lo = first / 2, hi = size / 2; hi > 0; lo /= 2, hi /= 2) {
+            for (int i = hi; i >= Math.max(lo, 1); i--) {
+                siftDown(i, backingArray[i]);
+            }
+        }
     }
 
     /**
-     * Checks the capacity of the backing array
-     * doubles the capacity if backingArray is full
+     * Grows the backing array if it is shorter than capacity, to double its
+     * current length or to capacity, whichever is larger.
+     *
+     * @param capacity the minimum length of the backing array
      */
-    private void checkCapacity() {
-        int capacity = backingArray.length;
-        int utilized = size+1;
-        if (utilized < capacity) {
+    private void ensureCapacity(int capacity) {
+        if (capacity <= backingArray.length) {
             return;
         }
-        T[] newBackingArray = (T[]) new Object[2*capacity];
+        T[] newBackingArray = (T[]) new Comparable[Math.max(2 * backingArray.length, capacity)];
         for (int i = 0; i <= size; i++) {
             newBackingArray[i] = backingArray[i];
         }
@@ -154,19 +199,23 @@ public class MaxHeap<T extends Comparable<? super T>> {
     }
 
     /**
-     * sifts (bubbles) the node at index up the tree until the heap property is satisfied
+     * sifts (bubbles) item up the tree from the hole at index until the heap property is satisfied.
+     * Smaller parents are moved down into the hole and item is written once at the end.
      *
-     * @param index the index of the node to sift
+     * @param index the index of the hole
+     * @param item the item to sift up from the hole
      */
-    private void siftUp(int index) {
-        if (index == 1) {
-            return;
-        }
-        int parentIndex = index / 2;
-        if (backingArray[index].compareTo(backingArray[parentIndex]) > 0) {
-            swap(index, parentIndex);
-            siftUp(parentIndex);
+    private void siftUp(int index, T item) {
+        while (index > 1) {
+            int parentIndex = index / 2;
+            T parent = backingArray[parentIndex];
+            if (item.compareTo(parent) <= 0) {
+                break;
+            }
+            backingArray[index] = parent;
+            index = parentIndex;
         }
+        backingArray[index] = item;
     }
 
 
@@ -183,10 +232,34 @@ public class MaxHeap<T extends Comparable<? super T>> {
             throw new NoSuchElementException("Attempting to remove the max item from an empty MaxHeap");
         }
         T removed = backingArray[1];
-        backingArray[1] = null;
-        swap(1, size);
-        size--;
-        heapify(1);
+        T last = backingArray[size];
+        backingArray[size--] = null;
+        if (size > 0) {
+            siftDown(1, last);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the max item and adds item in its place with a single sift
+     * down, where remove followed by add would sift twice. item may be the
+     * old max itself after the caller has changed it, which is how a k-way
+     * merge advances the cursor on top.
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @param item the item to put in place of the max
+     * @return the max item before the call
+     */
+    public T replaceMax(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to add null data to MaxHeap");
+        }
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to replace the max item of an empty MaxHeap");
+        }
+        T removed = backingArray[1];
+        siftDown(1, item);
         return removed;
     }
 
@@ -1,9 +1,15 @@
 import org.junit.Before;
 import org.junit.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 /**
   * Simple test cases for a max heap.
   * Write your own tests to ensure you cover all edge cases.
@@ -131,4 +137,388 @@ public class MaxHeapStudentTests {
         assertArrayEquals(new Integer[MaxHeap.INITIAL_CAPACITY],
             maxHeap.getBackingArray());
     }
+
+    @Test(timeout = TIMEOUT)
+    public void testAddPastCapacity() {
+        for (int i = 0; i < 100; i++) {
+            maxHeap.add(i);
+        }
+        assertEquals(100, maxHeap.size());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals((Integer) i, maxHeap.remove());
+        }
+        assertEquals(true, maxHeap.isEmpty());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDaryMaxHeap() {
+        /*
+                     89
+               /   /    \    \
+              15  43    17    64
+        */
+        DaryMaxHeap<Integer> heap = new DaryMaxHeap<>(4);
+        heap.add(43);
+        heap.add(15);
+        heap.add(64);
+        heap.add(17);
+        heap.add(89);
+
+        Integer[] expected = new Integer[DaryMaxHeap.INITIAL_CAPACITY];
+        expected[1] = 89;
+        expected[2] = 15;
+        expected[3] = 43;
+        expected[4] = 17;
+        expected[5] = 64;
+        assertEquals(5, heap.size());
+        assertArrayEquals(expected, heap.getBackingArray());
+
+        ArrayList<Integer> passedIn = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            passedIn.add((i * 37) % 50);
+        }
+        heap = new DaryMaxHeap<>(8, passedIn);
+        for (int i = 0; i < 50; i++) {
+            heap.add(i + 50);
+        }
+        for (int i = 99; i >= 0; i--) {
+            assertEquals((Integer) i, heap.remove());
+        }
+        assertEquals(null, heap.getMax());
+
+        for (int branching = 2; branching <= 4; branching++) {
+            heap = new DaryMaxHeap<>(branching, new ArrayList<Integer>());
+            assertEquals(0, heap.size());
+            assertEquals(null, heap.getMax());
+            heap.add(7);
+            assertEquals((Integer) 7, heap.remove());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testIndexedMaxHeap() {
+        IndexedMaxHeap<Job> heap = new IndexedMaxHeap<>();
+        Job a = new Job("a", 43);
+        Job b = new Job("b", 15);
+        Job c = new Job("c", 64);
+        Job d = new Job("d", 17);
+        Job e = new Job("e", 89);
+        heap.add(a);
+        heap.add(b);
+        heap.add(c);
+        heap.add(d);
+        heap.add(e);
+
+        assertSame(e, heap.getMax());
+        assertEquals(true, heap.contains(new Job("d", 0)));
+
+        b.priority = 100;
+        heap.update(b);
+        assertSame(b, heap.getMax());
+        e.priority = 1;
+        heap.update(e);
+
+        assertSame(c, heap.remove(new Job("c", 0)));
+        assertEquals(false, heap.contains(c));
+        assertEquals(4, heap.size());
+
+        assertSame(b, heap.remove());
+        assertSame(a, heap.remove());
+        assertSame(d, heap.remove());
+        assertSame(e, heap.remove());
+        assertEquals(true, heap.isEmpty());
+    }
+
+    /**
+     * An item whose priority can change after it is added, identified by
+     * name only.
+     */
+    private static class Job implements Comparable<Job> {
+        private final String name;
+        private int priority;
+
+        Job(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            return Integer.compare(priority, other.priority);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Job && ((Job) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongMaxHeap() {
+        LongMaxHeap heap = new LongMaxHeap(true);
+        heap.add(43L, 0);
+        heap.add(15L, 1);
+        heap.add(64L, 2);
+        heap.add(17L, 3);
+        heap.add(89L, 4);
+
+        long[] expected = {89L, 64L, 43L, 15L, 17L};
+        assertEquals(5, heap.size());
+        assertArrayEquals(expected, Arrays.copyOfRange(heap.getBackingArray(), 1, 6));
+
+        assertEquals(4, heap.getMaxPayload());
+        assertEquals(89L, heap.remove());
+        assertEquals(2, heap.getMaxPayload());
+        assertEquals(64L, heap.remove());
+        assertEquals(0, heap.getMaxPayload());
+        assertEquals(43L, heap.getMax());
+
+        heap = new LongMaxHeap();
+        for (long i = 0; i < 100; i++) {
+            heap.add(Long.MIN_VALUE + i * 7 % 100);
+        }
+        for (long i = 99; i >= 0; i--) {
+            assertEquals(Long.MIN_VALUE + i, heap.remove());
+        }
+        assertEquals(true, heap.isEmpty());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTopKHeap() {
+        TopKHeap<Integer> first = new TopKHeap<>(3);
+        TopKHeap<Integer> second = new TopKHeap<>(3);
+        for (int i = 0; i < 50; i++) {
+            first.offer((i * 37) % 50);
+            second.offer((i * 37) % 50 + 25);
+        }
+        assertEquals(3, first.size());
+        assertEquals((Integer) 47, first.getMin());
+        assertEquals(false, first.offer(10));
+        assertEquals(true, first.offer(100));
+
+        ArrayList<Integer> expected = new ArrayList<>();
+        expected.add(100);
+        expected.add(49);
+        expected.add(48);
+        assertEquals(expected, first.topK());
+
+        first.merge(second);
+        expected.set(1, 74);
+        expected.set(2, 73);
+        assertEquals(expected, first.topK());
+
+        boolean thrown = false;
+        try {
+            first.merge(first);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertEquals(true, thrown);
+        assertEquals(expected, first.topK());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testConcurrentMaxHeap() throws InterruptedException {
+        ConcurrentMaxHeap<Integer> strict = new ConcurrentMaxHeap<>(1);
+        strict.add(43);
+        strict.add(15);
+        strict.add(64);
+        assertEquals((Integer) 64, strict.getMax());
+        assertEquals((Integer) 64, strict.remove());
+        assertEquals((Integer) 43, strict.remove());
+        assertEquals((Integer) 15, strict.remove());
+        assertEquals(true, strict.isEmpty());
+
+        // contending threads wait on the single lock instead of spinning
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int offset = t * 500;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    strict.add(offset + i);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        for (int i = 1999; i >= 0; i--) {
+            assertEquals((Integer) i, strict.remove());
+        }
+
+        ConcurrentMaxHeap<Integer> relaxed = new ConcurrentMaxHeap<>(8);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t * 1000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    relaxed.add(offset + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, relaxed.size());
+        assertEquals((Integer) 3999, relaxed.getMax());
+
+        boolean[] seen = new boolean[4000];
+        for (int i = 0; i < 4000; i++) {
+            seen[relaxed.remove()] = true;
+        }
+        for (boolean s : seen) {
+            assertEquals(true, s);
+        }
+        assertEquals(true, relaxed.isEmpty());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPairingHeap() {
+        PairingHeap<Integer> first = new PairingHeap<>();
+        PairingHeap<Integer> second = new PairingHeap<>();
+        first.add(43);
+        PairingHeapNode<Integer> fifteen = first.add(15);
+        first.add(64);
+        second.add(17);
+        PairingHeapNode<Integer> five = second.add(5);
+        second.add(89);
+
+        first.meld(second);
+        assertEquals(6, first.size());
+        assertEquals(true, second.isEmpty());
+        assertEquals((Integer) 89, first.getMax());
+
+        first.increaseKey(fifteen, 70);
+        assertEquals((Integer) 89, first.remove());
+        first.increaseKey(five, 100);
+        assertEquals((Integer) 100, first.remove());
+        assertEquals((Integer) 70, first.remove());
+        assertEquals((Integer) 64, first.remove());
+        assertEquals((Integer) 43, first.remove());
+        assertEquals((Integer) 17, first.remove());
+        assertEquals(null, first.getMax());
+
+        for (int i = 0; i < 100; i++) {
+            first.add((i * 37) % 100);
+        }
+        for (int i = 99; i >= 0; i--) {
+            assertEquals((Integer) i, first.remove());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAddAll() {
+        maxHeap.add(43);
+        maxHeap.add(15);
+        ArrayList<Integer> batch = new ArrayList<>();
+        batch.add(64);
+        batch.add(17);
+        maxHeap.addAll(batch);
+
+        Integer[] expected = new Integer[MaxHeap.INITIAL_CAPACITY];
+        expected[1] = 64;
+        expected[2] = 17;
+        expected[3] = 43;
+        expected[4] = 15;
+        assertArrayEquals(expected, maxHeap.getBackingArray());
+
+        batch.clear();
+        for (int i = 0; i < 200; i++) {
+            batch.add((i * 37) % 200 + 100);
+        }
+        maxHeap.addAll(batch);
+        assertEquals(204, maxHeap.size());
+        assertEquals(205, maxHeap.getBackingArray().length);
+        for (int i = 299; i >= 100; i--) {
+            assertEquals((Integer) i, maxHeap.remove());
+        }
+        assertEquals((Integer) 64, maxHeap.remove());
+        assertEquals((Integer) 43, maxHeap.remove());
+        assertEquals((Integer) 17, maxHeap.remove());
+        assertEquals((Integer) 15, maxHeap.remove());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testKWayMerge() throws IOException {
+        Path first = Files.createTempFile("run", ".txt");
+        Path second = Files.createTempFile("run", ".txt");
+        Path third = Files.createTempFile("run", ".txt");
+        Path output = Files.createTempFile("merged", ".txt");
+        try {
+            Files.write(first, "apple\ncherry\nfig\n".getBytes(StandardCharsets.UTF_8));
+            Files.write(second, "banana\ncherry\ngrape".getBytes(StandardCharsets.UTF_8));
+            Files.write(third, new byte[0]);
+
+            // a 16 byte budget gives 3 runs and the output 4 byte buffers,
+            // so records straddle buffer boundaries
+            KWayMerge.Stats stats = KWayMerge.merge(Arrays.asList(first, second, third), output, 16);
+            assertEquals(6, stats.getRows());
+            assertEquals(36, stats.getBytesRead());
+            assertEquals(Arrays.asList("apple", "banana", "cherry", "cherry", "fig", "grape"),
+                Files.readAllLines(output, StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(first);
+            Files.delete(second);
+            Files.delete(third);
+            Files.delete(output);
+        }
+
+        // the merge advances the cursor on top with replaceMax
+        maxHeap.add(43);
+        maxHeap.add(15);
+        maxHeap.add(64);
+        assertEquals((Integer) 64, maxHeap.replaceMax(10));
+        assertEquals((Integer) 43, maxHeap.getMax());
+        assertEquals((Integer) 43, maxHeap.remove());
+        assertEquals((Integer) 15, maxHeap.remove());
+        assertEquals((Integer) 10, maxHeap.remove());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMinMaxHeap() {
+        /*
+                15
+               /  \
+              89  64
+             /  \
+            17  43
+        */
+        MinMaxHeap<Integer> heap = new MinMaxHeap<>();
+        heap.add(43);
+        heap.add(15);
+        heap.add(64);
+        heap.add(17);
+        heap.add(89);
+
+        Integer[] expected = new Integer[MinMaxHeap.INITIAL_CAPACITY];
+        expected[1] = 15;
+        expected[2] = 89;
+        expected[3] = 64;
+        expected[4] = 17;
+        expected[5] = 43;
+        assertArrayEquals(expected, heap.getBackingArray());
+        assertEquals((Integer) 15, heap.getMin());
+        assertEquals((Integer) 89, heap.getMax());
+
+        ArrayList<Integer> passedIn = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            passedIn.add((i * 37) % 100);
+        }
+        heap = new MinMaxHeap<>(passedIn);
+        for (int i = 0; i < 50; i++) {
+            heap.add(i + 100);
+        }
+        for (int i = 0; i < 75; i++) {
+            assertEquals((Integer) i, heap.removeMin());
+            assertEquals((Integer) (149 - i), heap.removeMax());
+        }
+        assertEquals(true, heap.isEmpty());
+    }
 }
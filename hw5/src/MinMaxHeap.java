@@ -0,0 +1,304 @@
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+/**
+ * A double-ended heap that gives O(1) access to both its smallest and its
+ * largest item from a single backing array.
+ *
+ * The array uses the same layout as MaxHeap: index 0 is empty and the
+ * children of index i are at 2i and 2i + 1. Levels alternate between min
+ * levels and max levels, starting with a min level at the root. Every item
+ * on a min level is the smallest in its subtree and every item on a max
+ * level is the largest in its subtree, so the min is at index 1 and the max
+ * is one of its two children.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class MinMaxHeap<T extends Comparable<? super T>> {
+
+    public static final int INITIAL_CAPACITY = 13;
+
+    private T[] backingArray;
+    private int size;
+
+    /**
+     * Creates an empty heap with an initial capacity of INITIAL_CAPACITY for
+     * the backing array.
+     */
+    public MinMaxHeap() {
+        backingArray = (T[]) new Comparable[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a properly ordered heap from a set of initial values, trickling
+     * down every parent from the bottom up like the BuildHeap algorithm.
+     *
+     * @param data a list of data to initialize the heap with
+     * @throws IllegalArgumentException if data or any element in data is null
+     */
+    public MinMaxHeap(ArrayList<T> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Attempting to insert null ArrayList into MinMaxHeap");
+        }
+        if (data.contains(null)) {
+            throw new IllegalArgumentException("Attempting to insert ArrayList with null data into MinMaxHeap");
+        }
+        int n = data.size();
+        backingArray = (T[]) new Comparable[n + 1];
+        for (int i = 0; i < n; i++) {
+            backingArray[i + 1] = data.get(i);
+        }
+        size = n;
+        for (int i = size / 2; i > 0; i--) {
+            trickleDown(i, backingArray[i]);
+        }
+    }
+
+    /**
+     * Returns whether index is on a min level. The root is on level 0.
+     *
+     * @param index the index to check
+     * @return true if index is on an even level, false otherwise
+     */
+    private static boolean isMinLevel(int index) {
+        return ((31 - Integer.numberOfLeadingZeros(index)) & 1) == 0;
+    }
+
+    /**
+     * Returns whether a belongs above b on the given kind of level.
+     *
+     * @param a the first item
+     * @param b the second item
+     * @param minLevel true to compare for a min level, false for a max level
+     * @return a < b on a min level, a > b on a max level
+     */
+    private static <T extends Comparable<? super T>> boolean before(T a, T b, boolean minLevel) {
+        int cmp = a.compareTo(b);
+        return minLevel ? cmp < 0 : cmp > 0;
+    }
+
+    /**
+     * Adds an item to the heap. If the backing array is full, its capacity
+     * is doubled.
+     *
+     * O(log n).
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @param item the item to be added to the heap
+     */
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to add null data to MinMaxHeap");
+        }
+        if (size + 1 == backingArray.length) {
+            T[] newBackingArray = (T[]) new Comparable[2 * backingArray.length];
+            for (int i = 0; i <= size; i++) {
+                newBackingArray[i] = backingArray[i];
+            }
+            backingArray = newBackingArray;
+        }
+        int index = ++size;
+        if (index == 1) {
+            backingArray[1] = item;
+            return;
+        }
+        // first decide which kind of level item belongs to, then only
+        // compare against grandparents on that kind of level
+        int parentIndex = index / 2;
+        boolean minLevel = isMinLevel(index);
+        if (before(backingArray[parentIndex], item, minLevel)) {
+            backingArray[index] = backingArray[parentIndex];
+            siftUp(parentIndex, item, !minLevel);
+        } else {
+            siftUp(index, item, minLevel);
+        }
+    }
+
+    /**
+     * sifts item up through the grandparents of the hole at index, which are
+     * all on the same kind of level as index.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift up
+     * @param minLevel whether index is on a min level
+     */
+    private void siftUp(int index, T item, boolean minLevel) {
+        while (index >= 4 && before(item, backingArray[index / 4], minLevel)) {
+            backingArray[index] = backingArray[index / 4];
+            index /= 4;
+        }
+        backingArray[index] = item;
+    }
+
+    /**
+     * Places item into the hole at index and restores the order of the
+     * subtree below it.
+     *
+     * At each step the hole is filled from the extreme (smallest on a min
+     * level, largest on a max level) of its children and grandchildren. When
+     * that is a grandchild, item may need to trade places with the
+     * grandchild's parent, which is on the opposite kind of level, before
+     * continuing down from the grandchild.
+     *
+     * @param index the index of the hole
+     * @param item the item to trickle down
+     */
+    private void trickleDown(int index, T item) {
+        boolean minLevel = isMinLevel(index);
+        while (true) {
+            int first = index * 2;
+            if (first > size) {
+                break;
+            }
+            int extreme = first;
+            if (first + 1 <= size && before(backingArray[first + 1], backingArray[extreme], minLevel)) {
+                extreme = first + 1;
+            }
+            int lastGrandchild = Math.min(index * 4 + 3, size);
+            for (int i = index * 4; i <= lastGrandchild; i++) {
+                if (before(backingArray[i], backingArray[extreme], minLevel)) {
+                    extreme = i;
+                }
+            }
+            if (!before(backingArray[extreme], item, minLevel)) {
+                break;
+            }
+            backingArray[index] = backingArray[extreme];
+            index = extreme;
+            if (extreme <= first + 1) {
+                // a child has nothing below it on the same kind of level
+                break;
+            }
+            int parentIndex = extreme / 2;
+            if (before(backingArray[parentIndex], item, minLevel)) {
+                T tmp = backingArray[parentIndex];
+                backingArray[parentIndex] = item;
+                item = tmp;
+            }
+        }
+        backingArray[index] = item;
+    }
+
+    /**
+     * Removes and returns the smallest item of the heap.
+     *
+     * O(log n).
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the removed item
+     */
+    public T removeMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to remove the min item from an empty MinMaxHeap");
+        }
+        return removeAt(1);
+    }
+
+    /**
+     * Removes and returns the largest item of the heap.
+     *
+     * O(log n).
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the removed item
+     */
+    public T removeMax() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to remove the max item from an empty MinMaxHeap");
+        }
+        return removeAt(maxIndex());
+    }
+
+    /**
+     * Removes the item at index, refilling the hole with the last item.
+     *
+     * @param index the index to remove, 1 or the index of the max
+     * @return the removed item
+     */
+    private T removeAt(int index) {
+        T removed = backingArray[index];
+        T last = backingArray[size];
+        backingArray[size--] = null;
+        if (index <= size) {
+            trickleDown(index, last);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the index of the largest item, which is the root or the larger
+     * of its children.
+     *
+     * @return the index of the max item
+     */
+    private int maxIndex() {
+        if (size == 1) {
+            return 1;
+        }
+        if (size == 2 || backingArray[2].compareTo(backingArray[3]) >= 0) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * Returns the smallest element in the heap.
+     *
+     * @return the minimum element, null if the heap is empty
+     */
+    public T getMin() {
+        if (size == 0) {
+            return null;
+        }
+        return backingArray[1];
+    }
+
+    /**
+     * Returns the largest element in the heap.
+     *
+     * @return the maximum element, null if the heap is empty
+     */
+    public T getMax() {
+        if (size == 0) {
+            return null;
+        }
+        return backingArray[maxIndex()];
+    }
+
+    /**
+     * Returns if the heap is empty or not.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap and resets the backing array to a new array of
+     * capacity {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        backingArray = (T[]) new Comparable[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the heap.
+     *
+     * @return number of items in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the heap.
+     *
+     * @return the backing array of the heap
+     */
+    public Object[] getBackingArray() {
+        return backingArray;
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A pointer-based max heap that can be melded with another heap in O(1).
+ *
+ * The heap is a single tree where every node is at least as large as its
+ * children. add and meld link two roots by making the smaller root the
+ * leftmost child of the larger. remove takes the root and links its
+ * children back together in two passes: first in pairs left to right, then
+ * the pairs right to left, which keeps remove amortized O(log n).
+ *
+ * Running times: add, meld and getMax are O(1), increaseKey is amortized
+ * O(1) in practice, and remove is amortized O(log n).
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class PairingHeap<T extends Comparable<? super T>> {
+
+    private PairingHeapNode<T> root;
+    private int size;
+
+    /**
+     * Adds an item to the heap.
+     *
+     * O(1).
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @param item the item to be added to the heap
+     * @return the node holding item, to pass to increaseKey later
+     */
+    public PairingHeapNode<T> add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to add null data to PairingHeap");
+        }
+        PairingHeapNode<T> node = new PairingHeapNode<>(item);
+        root = link(root, node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Moves every item of other into this heap. other is left empty.
+     *
+     * O(1).
+     *
+     * @throws IllegalArgumentException if other is null or is this heap
+     * @param other the heap to meld into this one
+     */
+    public void meld(PairingHeap<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Attempting to meld null PairingHeap");
+        }
+        if (other == this) {
+            throw new IllegalArgumentException("Attempting to meld PairingHeap with itself");
+        }
+        root = link(root, other.root);
+        size += other.size;
+        other.clear();
+    }
+
+    /**
+     * Links two roots, making the smaller the leftmost child of the larger.
+     *
+     * @param a the first root, may be null
+     * @param b the second root, may be null
+     * @return the root of the linked tree
+     */
+    private PairingHeapNode<T> link(PairingHeapNode<T> a, PairingHeapNode<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.getData().compareTo(a.getData()) > 0) {
+            PairingHeapNode<T> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        PairingHeapNode<T> first = a.getChild();
+        b.setSibling(first);
+        if (first != null) {
+            first.setPrev(b);
+        }
+        b.setPrev(a);
+        a.setChild(b);
+        a.setSibling(null);
+        a.setPrev(null);
+        return a;
+    }
+
+    /**
+     * Raises the data of a node in this heap to newItem.
+     *
+     * The node is cut out of its parent's child list together with its
+     * subtree, which is still in heap order, and linked back with the root.
+     *
+     * O(1) amortized in practice.
+     *
+     * @throws IllegalArgumentException if node or newItem is null, or if
+     * newItem is smaller than the data currently in node
+     * @param node a node returned by add on this heap and not yet removed
+     * @param newItem the new, larger data for the node
+     */
+    public void increaseKey(PairingHeapNode<T> node, T newItem) {
+        if (node == null) {
+            throw new IllegalArgumentException("Attempting to increase key of null node in PairingHeap");
+        }
+        if (newItem == null) {
+            throw new IllegalArgumentException("Attempting to increase key to null data in PairingHeap");
+        }
+        if (newItem.compareTo(node.getData()) < 0) {
+            throw new IllegalArgumentException("Attempting to decrease key in PairingHeap");
+        }
+        node.setData(newItem);
+        if (node == root) {
+            return;
+        }
+        PairingHeapNode<T> prev = node.getPrev();
+        PairingHeapNode<T> next = node.getSibling();
+        if (prev.getChild() == node) {
+            prev.setChild(next);
+        } else {
+            prev.setSibling(next);
+        }
+        if (next != null) {
+            next.setPrev(prev);
+        }
+        root = link(root, node);
+    }
+
+    /**
+     * Removes and returns the max item of the heap.
+     *
+     * O(log n) amortized.
+     *
+     * @throws java.util.NoSuchElementException if the heap is empty
+     * @return the removed item
+     */
+    public T remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("Attempting to remove the max item from an empty PairingHeap");
+        }
+        PairingHeapNode<T> removed = root;
+        root = combine(removed.getChild());
+        removed.setChild(null);
+        size--;
+        return removed.getData();
+    }
+
+    /**
+     * Links a list of siblings into a single tree with the two pass method.
+     *
+     * @param first the leftmost sibling
+     * @return the root of the combined tree, null if there are no siblings
+     */
+    private PairingHeapNode<T> combine(PairingHeapNode<T> first) {
+        if (first == null) {
+            return null;
+        }
+        // first pass: link pairs left to right
+        List<PairingHeapNode<T>> pairs = new ArrayList<>();
+        PairingHeapNode<T> curr = first;
+        while (curr != null) {
+            PairingHeapNode<T> second = curr.getSibling();
+            PairingHeapNode<T> rest = second == null ? null : second.getSibling();
+            curr.setSibling(null);
+            curr.setPrev(null);
+            if (second != null) {
+                second.setSibling(null);
+                second.setPrev(null);
+            }
+            pairs.add(link(curr, second));
+            curr = rest;
+        }
+        // second pass: link the pairs right to left
+        PairingHeapNode<T> res = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; i--) {
+            res = link(pairs.get(i), res);
+        }
+        return res;
+    }
+
+    /**
+     * Returns the maximum element in the heap.
+     *
+     * @return the maximum element, null if the heap is empty
+     */
+    public T getMax() {
+        if (size == 0) {
+            return null;
+        }
+        return root.getData();
+    }
+
+    /**
+     * Returns if the heap is empty or not.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the heap.
+     *
+     * @return number of items in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the root of the heap.
+     *
+     * @return the root of the heap
+     */
+    public PairingHeapNode<T> getRoot() {
+        return root;
+    }
+}
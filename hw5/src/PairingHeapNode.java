@@ -0,0 +1,104 @@
+/**
+ * Node class used by PairingHeap. Returned by PairingHeap.add as a handle
+ * that can later be passed to PairingHeap.increaseKey.
+ *
+ * Each node points to its leftmost child and its next sibling. The prev
+ * link points to the previous sibling, or to the parent for a leftmost
+ * child, so a node can be cut out of the tree in O(1).
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class PairingHeapNode<T extends Comparable<? super T>> {
+
+    private T data;
+    private PairingHeapNode<T> child;
+    private PairingHeapNode<T> sibling;
+    private PairingHeapNode<T> prev;
+
+    /**
+     * Creates a node with the given data and no links.
+     *
+     * @param data data to store in the node
+     */
+    PairingHeapNode(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Gets the data stored in the node.
+     *
+     * @return data in this node
+     */
+    public T getData() {
+        return data;
+    }
+
+    /**
+     * Sets the data stored in the node.
+     *
+     * @param data the new data
+     */
+    void setData(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Gets the leftmost child.
+     *
+     * @return the leftmost child, null if the node has no children
+     */
+    PairingHeapNode<T> getChild() {
+        return child;
+    }
+
+    /**
+     * Sets the leftmost child.
+     *
+     * @param child the new leftmost child
+     */
+    void setChild(PairingHeapNode<T> child) {
+        this.child = child;
+    }
+
+    /**
+     * Gets the next sibling.
+     *
+     * @return the next sibling, null if this is the last child
+     */
+    PairingHeapNode<T> getSibling() {
+        return sibling;
+    }
+
+    /**
+     * Sets the next sibling.
+     *
+     * @param sibling the new next sibling
+     */
+    void setSibling(PairingHeapNode<T> sibling) {
+        this.sibling = sibling;
+    }
+
+    /**
+     * Gets the previous sibling, or the parent for a leftmost child.
+     *
+     * @return the previous sibling or parent, null for a root
+     */
+    PairingHeapNode<T> getPrev() {
+        return prev;
+    }
+
+    /**
+     * Sets the previous sibling, or the parent for a leftmost child.
+     *
+     * @param prev the new previous sibling or parent
+     */
+    void setPrev(PairingHeapNode<T> prev) {
+        this.prev = prev;
+    }
+
+    @Override
+    public String toString() {
+        return "Node containing: " + data;
+    }
+}
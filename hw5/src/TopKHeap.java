@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the k largest items seen in a stream using O(k) memory.
+ *
+ * The items are held in a min heap of fixed capacity k, so the root is the
+ * smallest item kept and is the one evicted when a larger item arrives.
+ * Streams can be split across threads with one TopKHeap each and the
+ * partial results combined afterwards with merge, which only looks at the
+ * k items of the other heap.
+ *
+ * The backing array uses the same layout as MaxHeap: index 0 is empty and
+ * the children of index i are at 2i and 2i + 1.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class TopKHeap<T extends Comparable<? super T>> {
+
+    private final T[] backingArray;
+    private int size;
+
+    /**
+     * Creates an empty heap that keeps the k largest items offered to it.
+     *
+     * @param k the number of items to keep
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public TopKHeap(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Attempting to create TopKHeap with non-positive k");
+        }
+        backingArray = (T[]) new Comparable[k + 1];
+    }
+
+    /**
+     * Offers an item to the heap. Until the heap is full every item is kept.
+     * After that the item replaces the smallest item kept if it is larger,
+     * and is dropped otherwise.
+     *
+     * O(log k), or O(1) for an item that is dropped.
+     *
+     * @throws IllegalArgumentException if the item is null
+     * @param item the item to offer
+     * @return true if the item was kept, false if it was dropped
+     */
+    public boolean offer(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Attempting to offer null data to TopKHeap");
+        }
+        if (size < getK()) {
+            siftUp(++size, item);
+            return true;
+        }
+        if (item.compareTo(backingArray[1]) <= 0) {
+            return false;
+        }
+        siftDown(1, item);
+        return true;
+    }
+
+    /**
+     * Offers every item kept by another heap to this one. Afterwards this
+     * heap holds the k largest items offered to either heap. The other heap
+     * is left unchanged.
+     *
+     * O(m log k) where m is the size of the other heap.
+     *
+     * @throws IllegalArgumentException if other is null or this heap
+     * @param other the heap to merge in
+     */
+    public void merge(TopKHeap<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Attempting to merge null TopKHeap");
+        } else if (other == this) {
+            throw new IllegalArgumentException("Attempting to merge TopKHeap into itself");
+        }
+        for (int i = 1; i <= other.size; i++) {
+            offer(other.backingArray[i]);
+        }
+    }
+
+    /**
+     * sifts item up the tree from the hole at index, moving larger parents
+     * down into the hole and writing item once at the end.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift up from the hole
+     */
+    private void siftUp(int index, T item) {
+        while (index > 1) {
+            int parentIndex = index / 2;
+            T parent = backingArray[parentIndex];
+            if (item.compareTo(parent) >= 0) {
+                break;
+            }
+            backingArray[index] = parent;
+            index = parentIndex;
+        }
+        backingArray[index] = item;
+    }
+
+    /**
+     * sifts item down the tree from the hole at index, moving the smaller
+     * child up into the hole at each level and writing item once at the end.
+     *
+     * @param index the index of the hole
+     * @param item the item to sift down from the hole
+     */
+    private void siftDown(int index, T item) {
+        int half = size / 2;
+        while (index <= half) {
+            int childIndex = index * 2;
+            T child = backingArray[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex <= size && backingArray[rightIndex].compareTo(child) < 0) {
+                childIndex = rightIndex;
+                child = backingArray[rightIndex];
+            }
+            if (item.compareTo(child) <= 0) {
+                break;
+            }
+            backingArray[index] = child;
+            index = childIndex;
+        }
+        backingArray[index] = item;
+    }
+
+    /**
+     * Returns the items kept, largest first. The heap is left unchanged.
+     *
+     * O(k log k).
+     *
+     * @return a list of the kept items in descending order
+     */
+    public List<T> topK() {
+        List<T> res = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            res.add(backingArray[i]);
+        }
+        res.sort(Collections.reverseOrder());
+        return res;
+    }
+
+    /**
+     * Returns the smallest item kept. Once the heap is full, only items
+     * larger than this one will be kept.
+     *
+     * @return the smallest item kept, null if the heap is empty
+     */
+    public T getMin() {
+        if (size == 0) {
+            return null;
+        }
+        return backingArray[1];
+    }
+
+    /**
+     * Returns the number of items the heap keeps once full.
+     *
+     * @return k
+     */
+    public int getK() {
+        return backingArray.length - 1;
+    }
+
+    /**
+     * Returns if the heap is empty or not.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every item kept. The capacity k is unchanged.
+     */
+    public void clear() {
+        for (int i = 1; i <= size; i++) {
+            backingArray[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the heap.
+     *
+     * @return number of items kept, at most k
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the heap.
+     *
+     * @return the backing array of the heap
+     */
+    public Object[] getBackingArray() {
+        return backingArray;
+    }
+}
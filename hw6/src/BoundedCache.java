@@ -0,0 +1,756 @@
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A cache that keeps a HashMap from growing without bound by evicting
+ * entries once their total weight passes a maximum.
+ *
+ * The HashMap maps each key to a node that is also linked into an access
+ * queue, so finding, touching and evicting an entry are all O(1) without
+ * any scanning. The policy decides which entry goes:
+ *
+ * LRU evicts the least recently used entry.
+ *
+ * LFU evicts the least frequently used entry, the least recently used one
+ * among ties. The queue is kept sorted by use count, and a second HashMap
+ * remembers where each count's run ends so a touched entry moves to its
+ * new spot in O(1).
+ *
+ * TINY_LFU (W-TinyLFU) puts new entries in a small LRU window. Entries
+ * leaving the window only get into the main area if a compact frequency
+ * sketch says they are used more often than the entry they would push out.
+ * The main area is a segmented LRU: entries used again while on probation
+ * are promoted to a protected segment. One-off keys, such as those of a
+ * scan, pass through the window without flushing the entries that are
+ * used over and over.
+ *
+ * Entries can also expire a fixed time after they were last written, and
+ * a loader can compute the values of missing keys on get.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * The eviction policies a BoundedCache can use.
+     */
+    public enum Policy {
+        LRU, LFU, TINY_LFU
+    }
+
+    // segments of the queues array; LRU and LFU keep every entry in MAIN,
+    // which TINY_LFU uses as its probation segment
+    private static final int MAIN = 0;
+    private static final int WINDOW = 1;
+    private static final int PROTECTED = 2;
+
+    private final Policy policy;
+    private final long maximumWeight;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;
+    private final Function<? super K, ? extends V> loader;
+    private final LongSupplier ticker;
+
+    private final HashMap<K, Node<K, V>> index = new HashMap<>();
+    private final AccessQueue<K, V>[] queues;
+    // LFU only: the last node of each frequency's run in the MAIN queue
+    private final HashMap<Integer, Node<K, V>> frequencyTails;
+    // TINY_LFU only
+    private final FrequencySketch sketch;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private long weightedSize;
+    private long hitCount;
+    private long missCount;
+    private long loadCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache holding at most maximumSize entries, with no expiry
+     * and no loader.
+     *
+     * @param maximumSize the maximum number of entries
+     * @param policy the eviction policy
+     * @throws IllegalArgumentException if maximumSize is not positive or
+     * policy is null
+     */
+    public BoundedCache(long maximumSize, Policy policy) {
+        this(maximumSize, policy, null, 0, null, null);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumWeight the maximum total weight of the entries
+     * @param policy the eviction policy
+     * @param weigher computes the weight of an entry, null to weigh every
+     * entry as 1
+     * @param expireAfterWriteNanos how long an entry lives after it was
+     * last written, 0 or less to never expire entries
+     * @param loader computes the value of a key missing on get, null to
+     * have get throw instead
+     * @param ticker the clock used for expiry in nanoseconds, null for
+     * System.nanoTime
+     * @throws IllegalArgumentException if maximumWeight is not positive or
+     * policy is null
+     */
+    public BoundedCache(long maximumWeight, Policy policy, ToIntBiFunction<? super K, ? super V> weigher,
+            long expireAfterWriteNanos, Function<? super K, ? extends V> loader, LongSupplier ticker) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Attempting to create BoundedCache with non-positive maximum weight");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Attempting to create BoundedCache with null policy");
+        }
+        this.policy = policy;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.loader = loader;
+        this.ticker = ticker == null ? System::nanoTime : ticker;
+        queues = (AccessQueue<K, V>[]) new AccessQueue[3];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new AccessQueue<>();
+        }
+        frequencyTails = policy == Policy.LFU ? new HashMap<>() : null;
+        sketch = policy == Policy.TINY_LFU ? new FrequencySketch(maximumWeight) : null;
+        // 1% window, and 80% of the main area protected
+        windowMaximum = Math.max(1, maximumWeight / 100);
+        protectedMaximum = (maximumWeight - windowMaximum) * 4 / 5;
+    }
+
+    /**
+     * Returns the node for key, null if there is none or it has expired.
+     * An expired node is removed and counted as an eviction.
+     *
+     * @param key the key to search for
+     * @param now the current time
+     * @return the live node holding key, or null
+     */
+    private Node<K, V> lookup(K key, long now) {
+        Node<K, V> node = index.getOrDefault(key, null);
+        if (node == null) {
+            return null;
+        }
+        if (expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos) {
+            removeNode(node);
+            evictionCount++;
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Gets the value associated with the given key, loading it with the
+     * loader if it is missing or expired.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the
+     * cache and there is no loader, or the loader returns null
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        if (loader == null) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the BoundedCache");
+        }
+        value = loader.apply(key);
+        if (value == null) {
+            throw new NoSuchElementException("Attempting to load a key with no value into the BoundedCache");
+        }
+        loadCount++;
+        insert(key, value, ticker.getAsLong());
+        return value;
+    }
+
+    /**
+     * Gets the value associated with the given key without loading it.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return the value associated with key, null if it is not in the cache
+     */
+    public V getIfPresent(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        Node<K, V> node = lookup(key, ticker.getAsLong());
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Adds the given key-value pair to the cache, or replaces the value if
+     * the key is already cached, then evicts entries until the cache is
+     * within its maximum weight. An entry heavier than the maximum weight is
+     * evicted straight away, along with the old value of its key, and every
+     * other entry is left as it was.
+     *
+     * @param key key to add into the cache
+     * @param value value to add into the cache
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the cache. If it was in
+     * the cache, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to insert null key into BoundedCache");
+        } else if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into BoundedCache");
+        }
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        long now = ticker.getAsLong();
+        Node<K, V> node = lookup(key, now);
+        if (node == null) {
+            insert(key, value, now);
+            return null;
+        }
+        V prev = node.value;
+        int weight = weigh(key, value);
+        if (weight > maximumWeight) {
+            evictNode(node);
+            return prev;
+        }
+        queues[node.segment].weight += weight - node.weight;
+        weightedSize += weight - node.weight;
+        node.value = value;
+        node.weight = weight;
+        node.writeTime = now;
+        onAccess(node);
+        evict();
+        return prev;
+    }
+
+    /**
+     * Returns the weight of an entry.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return the weight from the weigher, or 1 if there is none
+     */
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Attempting to insert entry with negative weight into BoundedCache");
+        }
+        return weight;
+    }
+
+    /**
+     * Adds a new entry where the policy wants new entries. LRU and LFU
+     * evict before adding, TINY_LFU after. An entry that could never fit is
+     * counted as evicted without touching the cached entries.
+     *
+     * @param key the key, known not to be cached
+     * @param value the value
+     * @param now the current time
+     */
+    private void insert(K key, V value, long now) {
+        Node<K, V> node = new Node<>(key, value, weigh(key, value), now);
+        if (node.weight > maximumWeight) {
+            evictionCount++;
+            return;
+        }
+        if (policy != Policy.TINY_LFU) {
+            // make room first, or a new LFU entry would be the first to go
+            while (weightedSize + node.weight > maximumWeight && !queues[MAIN].isEmpty()) {
+                evictNode(queues[MAIN].first());
+            }
+        }
+        index.put(key, node);
+        weightedSize += node.weight;
+        if (policy == Policy.LRU) {
+            queues[MAIN].addLast(node);
+        } else if (policy == Policy.LFU) {
+            node.frequency = 1;
+            Node<K, V> anchor = frequencyTails.getOrDefault(1, queues[MAIN].sentinel);
+            queues[MAIN].addAfter(anchor, node);
+            frequencyTails.put(1, node);
+        } else {
+            node.segment = WINDOW;
+            queues[WINDOW].addLast(node);
+        }
+        evict();
+    }
+
+    /**
+     * Records a use of a cached entry.
+     *
+     * @param node the entry that was used
+     */
+    private void onAccess(Node<K, V> node) {
+        if (policy == Policy.LFU) {
+            int frequency = node.frequency;
+            Node<K, V> prev = node.prev;
+            unlink(node);
+            // the next run starts after this run, or where the node was if
+            // it was the last of its run
+            Node<K, V> anchor = frequencyTails.getOrDefault(frequency + 1, null);
+            if (anchor == null) {
+                anchor = frequencyTails.getOrDefault(frequency, prev);
+            }
+            node.frequency = frequency + 1;
+            queues[MAIN].addAfter(anchor, node);
+            frequencyTails.put(node.frequency, node);
+        } else if (node.segment == MAIN && policy == Policy.TINY_LFU) {
+            // used again while on probation, so promote it
+            queues[MAIN].remove(node);
+            node.segment = PROTECTED;
+            queues[PROTECTED].addLast(node);
+            while (queues[PROTECTED].weight > protectedMaximum) {
+                Node<K, V> demoted = queues[PROTECTED].first();
+                queues[PROTECTED].remove(demoted);
+                demoted.segment = MAIN;
+                queues[MAIN].addLast(demoted);
+            }
+        } else {
+            queues[node.segment].remove(node);
+            queues[node.segment].addLast(node);
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is within its maximum weight.
+     */
+    private void evict() {
+        if (policy != Policy.TINY_LFU) {
+            while (weightedSize > maximumWeight) {
+                evictNode(queues[MAIN].first());
+            }
+            return;
+        }
+        while (queues[WINDOW].weight > windowMaximum) {
+            Node<K, V> candidate = queues[WINDOW].first();
+            queues[WINDOW].remove(candidate);
+            candidate.segment = MAIN;
+            queues[MAIN].addLast(candidate);
+        }
+        while (weightedSize > maximumWeight) {
+            // the newest probation entry, usually just out of the window,
+            // has to be used more often than the oldest main entry to stay
+            Node<K, V> candidate = queues[MAIN].last();
+            Node<K, V> victim = queues[MAIN].isEmpty() ? queues[PROTECTED].first() : queues[MAIN].first();
+            if (candidate == null || candidate == victim
+                    || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evictNode(victim);
+            } else {
+                evictNode(candidate);
+            }
+        }
+    }
+
+    /**
+     * Removes a node from the cache and counts it as evicted.
+     *
+     * @param node the node to evict
+     */
+    private void evictNode(Node<K, V> node) {
+        removeNode(node);
+        evictionCount++;
+    }
+
+    /**
+     * Removes a node from the index and its queue.
+     *
+     * @param node the node to remove
+     */
+    private void removeNode(Node<K, V> node) {
+        index.remove(node.key);
+        unlink(node);
+        weightedSize -= node.weight;
+    }
+
+    /**
+     * Unlinks a node from its queue, keeping the LFU run tails up to date.
+     *
+     * @param node the node to unlink
+     */
+    private void unlink(Node<K, V> node) {
+        if (frequencyTails != null && frequencyTails.getOrDefault(node.frequency, null) == node) {
+            if (node.prev.frequency == node.frequency) {
+                frequencyTails.put(node.frequency, node.prev);
+            } else {
+                frequencyTails.remove(node.frequency);
+            }
+        }
+        queues[node.segment].remove(node);
+    }
+
+    /**
+     * Removes the entry with a matching key from the cache.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not cached
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from BoundedCache");
+        }
+        Node<K, V> node = lookup(key, ticker.getAsLong());
+        if (node == null) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in BoundedCache");
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    /**
+     * Returns whether or not the key is cached and not expired. Does not
+     * count as a use of the entry.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the cache
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if BoundedCache contains null key");
+        }
+        return lookup(key, ticker.getAsLong()) != null;
+    }
+
+    /**
+     * Removes every entry. Statistics are kept.
+     */
+    public void clear() {
+        index.clear();
+        for (AccessQueue<K, V> queue : queues) {
+            queue.clear();
+        }
+        if (frequencyTails != null) {
+            frequencyTails.clear();
+        }
+        weightedSize = 0;
+    }
+
+    /**
+     * Returns the number of entries in the cache, including expired ones
+     * that have not been noticed yet.
+     *
+     * @return number of entries in the cache
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the total weight of the entries in the cache.
+     *
+     * @return the weighted size
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss, load and eviction counts.
+     *
+     * @return the cache statistics so far
+     */
+    public Stats stats() {
+        return new Stats(hitCount, missCount, loadCount, evictionCount);
+    }
+
+    /**
+     * Statistics about a cache's lookups and evictions.
+     */
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long loadCount;
+        private final long evictionCount;
+
+        /**
+         * Creates cache statistics.
+         *
+         * @param hitCount lookups that found a live entry
+         * @param missCount lookups that did not
+         * @param loadCount values computed by the loader
+         * @param evictionCount entries evicted for weight or expiry
+         */
+        private Stats(long hitCount, long missCount, long loadCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadCount = loadCount;
+            this.evictionCount = evictionCount;
+        }
+
+        /**
+         * Returns the number of lookups that found a live entry.
+         *
+         * @return the hit count
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Returns the number of lookups that found no live entry.
+         *
+         * @return the miss count
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Returns the number of values computed by the loader.
+         *
+         * @return the load count
+         */
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        /**
+         * Returns the number of entries evicted, either to stay within the
+         * maximum weight or because they expired.
+         *
+         * @return the eviction count
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Returns the fraction of lookups that were hits.
+         *
+         * @return the hit rate, 1 if there have been no lookups
+         */
+        public double getHitRate() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 1.0 : (double) hitCount / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit rate), %d loads, %d evictions",
+                hitCount, missCount, 100 * getHitRate(), loadCount, evictionCount);
+        }
+    }
+
+    /**
+     * A cached entry, linked into the queue of its segment.
+     */
+    private static class Node<K, V> {
+        private final K key;
+        private V value;
+        private int weight;
+        private long writeTime;
+        private int segment;
+        // LFU only: how many times the entry has been used
+        private int frequency;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        /**
+         * Creates an unlinked node.
+         *
+         * @param key the key
+         * @param value the value
+         * @param weight the weight of the entry
+         * @param writeTime when the value was written
+         */
+        private Node(K key, V value, int weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * A circular doubly linked list of nodes around a sentinel, least
+     * recently used first, that keeps the total weight of its nodes.
+     */
+    private static class AccessQueue<K, V> {
+        private final Node<K, V> sentinel = new Node<>(null, null, 0, 0);
+        private long weight;
+
+        /**
+         * Creates an empty queue.
+         */
+        private AccessQueue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        /**
+         * Returns whether the queue is empty.
+         *
+         * @return true if the queue holds no nodes
+         */
+        private boolean isEmpty() {
+            return sentinel.next == sentinel;
+        }
+
+        /**
+         * Returns the least recently used node.
+         *
+         * @return the first node, null if the queue is empty
+         */
+        private Node<K, V> first() {
+            return isEmpty() ? null : sentinel.next;
+        }
+
+        /**
+         * Returns the most recently used node.
+         *
+         * @return the last node, null if the queue is empty
+         */
+        private Node<K, V> last() {
+            return isEmpty() ? null : sentinel.prev;
+        }
+
+        /**
+         * Links a node in as the most recently used.
+         *
+         * @param node the node to add
+         */
+        private void addLast(Node<K, V> node) {
+            addAfter(sentinel.prev, node);
+        }
+
+        /**
+         * Links a node in right after another.
+         *
+         * @param anchor a node in this queue, or the sentinel
+         * @param node the node to add
+         */
+        private void addAfter(Node<K, V> anchor, Node<K, V> node) {
+            node.prev = anchor;
+            node.next = anchor.next;
+            anchor.next.prev = node;
+            anchor.next = node;
+            weight += node.weight;
+        }
+
+        /**
+         * Unlinks a node.
+         *
+         * @param node a node in this queue
+         */
+        private void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        /**
+         * Unlinks every node.
+         */
+        private void clear() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            weight = 0;
+        }
+    }
+
+    /**
+     * A count-min sketch estimating how often each key has been used.
+     *
+     * Four rows of counters are each indexed by a different hash of the
+     * key, and the estimate is the smallest of the four counters, so
+     * collisions can only make it too high. Counters stop at 15, and after
+     * ten increments per counter in a row every counter is halved, so old
+     * popularity fades.
+     */
+    private static class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        private static final int MAX_COUNT = 15;
+
+        private final int[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        /**
+         * Creates a sketch with room for about maximumSize keys.
+         *
+         * @param maximumSize the expected number of distinct hot keys
+         */
+        private FrequencySketch(long maximumSize) {
+            int width = (int) Math.min(Math.max(maximumSize, 16), 1 << 22);
+            width = Integer.highestOneBit(width - 1) << 1;
+            counters = new int[SEEDS.length * width];
+            mask = width - 1;
+            sampleSize = 10 * width;
+        }
+
+        /**
+         * Returns the index of key's counter in a row.
+         *
+         * @param hashCode the hash code of the key
+         * @param row the row
+         * @return the index into counters
+         */
+        private int indexOf(int hashCode, int row) {
+            int h = hashCode * SEEDS[row];
+            h ^= h >>> 16;
+            return row * (mask + 1) + (h & mask);
+        }
+
+        /**
+         * Records a use of key.
+         *
+         * @param key the key that was used
+         */
+        private void increment(Object key) {
+            int hashCode = key.hashCode();
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int i = indexOf(hashCode, row);
+                if (counters[i] < MAX_COUNT) {
+                    counters[i]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        /**
+         * Returns the estimated number of recent uses of key.
+         *
+         * @param key the key to estimate
+         * @return the smallest of key's counters
+         */
+        private int frequency(Object key) {
+            int hashCode = key.hashCode();
+            int min = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                min = Math.min(min, counters[indexOf(hashCode, row)]);
+            }
+            return min;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,343 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash set that stores nothing but its keys, in one flat array.
+ *
+ * Using a HashMap as a set costs a MapEntry, a value slot and usually a
+ * boxed Boolean per key. Here a key is a single array slot. The hashing
+ * and resize rules are HashMap's: the same INITIAL_CAPACITY and
+ * MAX_LOAD_FACTOR, the load factor checked before every add, a table that
+ * grows to 2 * old length + 1, and the home slot of a key at the absolute
+ * value of its hashCode modulo the table length. Collisions are resolved
+ * by linear probing instead of chaining, and removal shifts the rest of
+ * the cluster back instead of leaving tombstones.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class CompactHashSet<T> implements Iterable<T> {
+
+    public static final int INITIAL_CAPACITY = 11;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    private T[] table;
+    private int size;
+
+    /**
+     * Creates an empty set with INITIAL_CAPACITY slots.
+     */
+    public CompactHashSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set.
+     *
+     * @param initialCapacity the number of slots
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public CompactHashSet(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Attempting to create CompactHashSet with non-positive capacity");
+        }
+        table = (T[]) new Object[initialCapacity];
+    }
+
+    /**
+     * Creates a set sharing nothing with other but holding the same keys in
+     * the same slots.
+     *
+     * @param other the set to copy
+     */
+    private CompactHashSet(CompactHashSet<T> other) {
+        table = other.table.clone();
+        size = other.size;
+    }
+
+    /**
+     * Returns the home slot of a key in a table of the given length.
+     *
+     * @param key the key
+     * @param length the length of the table
+     * @return the slot the probe sequence for key starts at
+     */
+    private static int home(Object key, int length) {
+        return Math.abs(key.hashCode() % length);
+    }
+
+    /**
+     * Returns the slot holding key, or the empty slot that ends its probe
+     * sequence.
+     *
+     * @param key the key to search for
+     * @return the slot of key, or of the first empty slot after it
+     */
+    private int find(Object key) {
+        int slot = home(key, table.length);
+        while (table[slot] != null && !table[slot].equals(key)) {
+            slot = slot + 1 == table.length ? 0 : slot + 1;
+        }
+        return slot;
+    }
+
+    /**
+     * Adds a key to the set. Like HashMap.put, the table first grows to
+     * 2 * old length + 1 if one more key would exceed the max load factor.
+     *
+     * @param key the key to add
+     * @throws IllegalArgumentException if key is null
+     * @return true if the key was added, false if it was already in the set
+     */
+    public boolean add(T key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to add null key to CompactHashSet");
+        }
+        if (size + 1 > MAX_LOAD_FACTOR * table.length) {
+            resizeBackingTable(2 * table.length + 1);
+        }
+        int slot = find(key);
+        if (table[slot] != null) {
+            return false;
+        }
+        table[slot] = key;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds every key of a collection, growing the table at most once up
+     * front instead of once per doubling. The keys are checked for null
+     * before any is added, so a bad collection leaves the set unchanged.
+     *
+     * @param keys the keys to add
+     * @throws IllegalArgumentException if keys or any key in it is null
+     * @return the number of keys that were not already in the set
+     */
+    public int addAll(Collection<? extends T> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Attempting to add null keys to CompactHashSet");
+        }
+        // not keys.contains(null), which List.of and Set.of reject
+        for (T key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("Attempting to add null keys to CompactHashSet");
+            }
+        }
+        int length = lengthFor(table.length, size + keys.size());
+        if (length != table.length) {
+            resizeBackingTable(length);
+        }
+        int added = 0;
+        for (T key : keys) {
+            if (add(key)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns whether or not the key is in the set.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the set
+     */
+    public boolean contains(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if CompactHashSet contains null key");
+        }
+        return table[find(key)] != null;
+    }
+
+    /**
+     * Removes a key from the set. The keys after it in the same cluster that
+     * are allowed to move are shifted back into the gap.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the set
+     * @return the key that was in the set
+     */
+    public T remove(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from CompactHashSet");
+        }
+        int gap = find(key);
+        T removed = table[gap];
+        if (removed == null) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in CompactHashSet");
+        }
+        int length = table.length;
+        int next = gap;
+        while (true) {
+            next = next + 1 == length ? 0 : next + 1;
+            if (table[next] == null) {
+                break;
+            }
+            // a key can fill the gap only if its home slot is not between
+            // the gap and where it is now
+            int home = home(table[next], length);
+            if (Math.floorMod(next - home, length) >= Math.floorMod(next - gap, length)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+        }
+        table[gap] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returns a new set holding the keys of both sets. The larger set's
+     * table is copied as is and only the keys of the smaller set are
+     * hashed.
+     *
+     * @param other the set to union with
+     * @throws IllegalArgumentException if other is null
+     * @return the union of the two sets
+     */
+    public CompactHashSet<T> union(CompactHashSet<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Attempting to union CompactHashSet with null set");
+        }
+        CompactHashSet<T> larger = size >= other.size ? this : other;
+        CompactHashSet<T> smaller = larger == this ? other : this;
+        CompactHashSet<T> res = new CompactHashSet<>(larger);
+        for (T key : smaller.table) {
+            if (key != null) {
+                res.add(key);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns a new set holding the keys in both sets. Only the smaller set
+     * is walked, probing the larger one for each of its keys, and the result
+     * is sized up front to hold all of them.
+     *
+     * @param other the set to intersect with
+     * @throws IllegalArgumentException if other is null
+     * @return the intersection of the two sets
+     */
+    public CompactHashSet<T> intersection(CompactHashSet<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Attempting to intersect CompactHashSet with null set");
+        }
+        CompactHashSet<T> smaller = size <= other.size ? this : other;
+        CompactHashSet<T> larger = smaller == this ? other : this;
+        CompactHashSet<T> res = new CompactHashSet<>(lengthFor(INITIAL_CAPACITY, smaller.size));
+        for (T key : smaller.table) {
+            if (key != null && larger.contains(key)) {
+                res.add(key);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns the length a table reaches by growing from length to 2 * old
+     * length + 1 until it holds keys without exceeding the max load factor.
+     *
+     * @param length the length to start from
+     * @param keys the number of keys the table must hold
+     * @return the grown length, length itself if it is already enough
+     */
+    private static int lengthFor(int length, int keys) {
+        while (keys > MAX_LOAD_FACTOR * length) {
+            length = 2 * length + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Resizes the table to the given length and reinserts every key.
+     *
+     * @param length new length of the table
+     * @throws IllegalArgumentException if length is not more than the
+     * number of keys in the set
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= size) {
+            String message = String.format("Attempting to resize backing table of size %d to length %d", size, length);
+            throw new IllegalArgumentException(message);
+        }
+        T[] oldTable = table;
+        table = (T[]) new Object[length];
+        for (T key : oldTable) {
+            if (key != null) {
+                table[find(key)] = key;
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the keys in slot order. It does not support
+     * remove.
+     *
+     * @return an iterator over the keys
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int slot = nextOccupied(0);
+
+            /**
+             * Returns the first occupied slot at or after from.
+             *
+             * @param from the slot to start at
+             * @return the slot, table.length if there is none
+             */
+            private int nextOccupied(int from) {
+                while (from < table.length && table[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < table.length;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Attempting to iterate past the end of CompactHashSet");
+                }
+                T key = table[slot];
+                slot = nextOccupied(slot + 1);
+                return key;
+            }
+        };
+    }
+
+    /**
+     * Clears the set and resets it to INITIAL_CAPACITY slots.
+     */
+    public void clear() {
+        table = (T[]) new Object[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns the number of keys in the set.
+     *
+     * @return number of keys in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing table of the set.
+     *
+     * @return the backing table
+     */
+    public Object[] getTable() {
+        return table;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,427 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An external chaining hash map that many threads can read and write at
+ * once.
+ *
+ * get and containsKey never lock: they read the bin and walk its chain
+ * through volatile links. put and remove lock only the head node of the bin
+ * they change, and an empty bin is claimed with a single compare-and-set,
+ * so writers to different bins never wait for each other. Threads sharing
+ * one HashMap behind a global lock serialize every operation; here they
+ * only serialize on collisions.
+ *
+ * Resizing is shared too. The thread that crosses the load factor allocates
+ * a table of twice the length, and from then on every writer that runs into
+ * the resize claims a range of STRIDE bins and moves them before carrying
+ * on. A moved bin is replaced by a forwarding node that sends readers and
+ * writers to the new table, so nobody waits for the whole table to be
+ * copied. Moved chains are copied rather than relinked so that readers
+ * still walking the old chain see it unchanged.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class ConcurrentChainedHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.75;
+    public static final int STRIDE = 16;
+
+    // hash of forwarding nodes; real hashes are never negative
+    private static final int MOVED = -1;
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    // the resize in progress, null if there is none
+    private volatile Transfer<K, V> transfer;
+    // guards starting and finishing a resize, never held by get, put or remove
+    private final Object resizeLock = new Object();
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Creates an empty map with INITIAL_CAPACITY bins.
+     */
+    public ConcurrentChainedHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param initialCapacity minimum number of bins, rounded up to a power
+     * of two
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public ConcurrentChainedHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Attempting to create ConcurrentChainedHashMap with non-positive capacity");
+        }
+        int length = initialCapacity <= 1 ? 1 : Integer.highestOneBit(initialCapacity - 1) << 1;
+        table = new AtomicReferenceArray<>(length);
+    }
+
+    /**
+     * Spreads the hash code of a key and clears the sign bit, which is
+     * reserved for forwarding nodes.
+     *
+     * @param key the key to hash
+     * @return the spread, non-negative hash
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & 0x7fffffff;
+    }
+
+    /**
+     * Returns the node for key, following forwarding nodes into newer
+     * tables. Takes no locks.
+     *
+     * @param key the key to search for
+     * @return the node holding key, null if it is not in the map
+     */
+    private Node<K, V> find(K key) {
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            Node<K, V> curr = tab.get(hash & (tab.length() - 1));
+            if (curr != null && curr.hash == MOVED) {
+                tab = ((ForwardingNode<K, V>) curr).nextTable;
+                continue;
+            }
+            for (; curr != null; curr = curr.next) {
+                if (curr.hash == hash && curr.key.equals(key)) {
+                    return curr;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Adds the given key-value pair to the map, or replaces the value if the
+     * key is already in the map.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to insert null key into ConcurrentChainedHashMap");
+        } else if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into ConcurrentChainedHashMap");
+        }
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int bin = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(bin);
+            if (head == null) {
+                if (tab.compareAndSet(bin, null, new Node<>(hash, key, value, null))) {
+                    break;
+                }
+            } else if (head.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<K, V>) head);
+            } else {
+                synchronized (head) {
+                    if (tab.get(bin) != head) {
+                        continue;
+                    }
+                    Node<K, V> curr = head;
+                    while (true) {
+                        if (curr.hash == hash && curr.key.equals(key)) {
+                            V prev = curr.value;
+                            curr.value = value;
+                            return prev;
+                        }
+                        if (curr.next == null) {
+                            curr.next = new Node<>(hash, key, value, null);
+                            break;
+                        }
+                        curr = curr.next;
+                    }
+                }
+                break;
+            }
+        }
+        size.increment();
+        if (size.sum() > MAX_LOAD_FACTOR * tab.length()) {
+            startTransfer(tab);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from ConcurrentChainedHashMap");
+        }
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int bin = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(bin);
+            if (head == null) {
+                break;
+            } else if (head.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<K, V>) head);
+                continue;
+            }
+            synchronized (head) {
+                if (tab.get(bin) != head) {
+                    continue;
+                }
+                Node<K, V> prev = null;
+                for (Node<K, V> curr = head; curr != null; curr = curr.next) {
+                    if (curr.hash == hash && curr.key.equals(key)) {
+                        if (prev == null) {
+                            tab.set(bin, curr.next);
+                        } else {
+                            prev.next = curr.next;
+                        }
+                        size.decrement();
+                        return curr.value;
+                    }
+                    prev = curr;
+                }
+            }
+            break;
+        }
+        throw new NoSuchElementException("Cannot remove: provided key is not present in ConcurrentChainedHashMap");
+    }
+
+    /**
+     * Gets the value associated with the given key. Takes no locks.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        Node<K, V> node = find(key);
+        if (node == null) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the ConcurrentChainedHashMap");
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns whether or not the key is in the map. Takes no locks.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if ConcurrentChainedHashMap contains null key");
+        }
+        return find(key) != null;
+    }
+
+    /**
+     * Starts a resize of tab unless one is already running or tab has
+     * already been replaced, then helps move bins.
+     *
+     * @param tab the table that went over the load factor
+     */
+    private void startTransfer(AtomicReferenceArray<Node<K, V>> tab) {
+        Transfer<K, V> curr;
+        synchronized (resizeLock) {
+            curr = transfer;
+            if (curr == null) {
+                if (table != tab || size.sum() <= MAX_LOAD_FACTOR * tab.length()) {
+                    return;
+                }
+                curr = new Transfer<>(tab);
+                transfer = curr;
+            }
+        }
+        moveBins(curr);
+    }
+
+    /**
+     * Helps the resize a forwarding node belongs to, then returns the table
+     * the node forwards to.
+     *
+     * @param forward the forwarding node that was hit
+     * @return the table to retry in
+     */
+    private AtomicReferenceArray<Node<K, V>> helpTransfer(ForwardingNode<K, V> forward) {
+        Transfer<K, V> curr = transfer;
+        if (curr != null && curr.nextTable == forward.nextTable) {
+            moveBins(curr);
+        }
+        return forward.nextTable;
+    }
+
+    /**
+     * Claims ranges of STRIDE bins and moves them until every bin of the
+     * resize has been claimed. The thread that moves the last bin installs
+     * the new table.
+     *
+     * @param curr the resize to work on
+     */
+    private void moveBins(Transfer<K, V> curr) {
+        int n = curr.oldTable.length();
+        while (true) {
+            int hi = curr.claimed.getAndAdd(-STRIDE);
+            if (hi <= 0) {
+                return;
+            }
+            int lo = Math.max(0, hi - STRIDE);
+            for (int i = lo; i < hi; i++) {
+                moveBin(curr, i);
+            }
+            if (curr.moved.addAndGet(hi - lo) == n) {
+                synchronized (resizeLock) {
+                    table = curr.nextTable;
+                    transfer = null;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Copies the chain of one bin into the two bins it splits into in the
+     * new table, then forwards the old bin.
+     *
+     * @param curr the resize the bin belongs to
+     * @param bin the index of the bin in the old table
+     */
+    private void moveBin(Transfer<K, V> curr, int bin) {
+        AtomicReferenceArray<Node<K, V>> tab = curr.oldTable;
+        int n = tab.length();
+        while (true) {
+            Node<K, V> head = tab.get(bin);
+            if (head == null) {
+                if (tab.compareAndSet(bin, null, curr.forward)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (head) {
+                if (tab.get(bin) != head) {
+                    continue;
+                }
+                Node<K, V> low = null;
+                Node<K, V> high = null;
+                for (Node<K, V> node = head; node != null; node = node.next) {
+                    if ((node.hash & n) == 0) {
+                        low = new Node<>(node.hash, node.key, node.value, low);
+                    } else {
+                        high = new Node<>(node.hash, node.key, node.value, high);
+                    }
+                }
+                curr.nextTable.set(bin, low);
+                curr.nextTable.set(bin + n, high);
+                tab.set(bin, curr.forward);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map. Exact when no writes are in
+     * flight, an estimate otherwise.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+
+    /**
+     * Returns the number of bins in the current table. During a resize this
+     * is the length of the table being moved out of.
+     *
+     * @return the length of the table
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+    /**
+     * A link in a bin's chain. The key and hash never change, so only the
+     * value and the next link need to be volatile for lock free reads.
+     */
+    private static class Node<K, V> {
+        private final int hash;
+        private final K key;
+        private volatile V value;
+        private volatile Node<K, V> next;
+
+        /**
+         * Creates a node.
+         *
+         * @param hash the spread hash of key
+         * @param key the key
+         * @param value the value
+         * @param next the next node in the chain
+         */
+        private Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Placed in a bin of the old table once the bin has been moved.
+     */
+    private static class ForwardingNode<K, V> extends Node<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        /**
+         * Creates a forwarding node.
+         *
+         * @param nextTable the table the bin was moved to
+         */
+        private ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * The state of one resize, shared by every thread that helps with it.
+     */
+    private static class Transfer<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> oldTable;
+        private final AtomicReferenceArray<Node<K, V>> nextTable;
+        private final ForwardingNode<K, V> forward;
+        // bins at or above this index have been claimed, counts down
+        private final AtomicInteger claimed;
+        private final AtomicInteger moved = new AtomicInteger();
+
+        /**
+         * Creates a resize of oldTable into a table of twice the length.
+         *
+         * @param oldTable the table to move out of
+         */
+        private Transfer(AtomicReferenceArray<Node<K, V>> oldTable) {
+            this.oldTable = oldTable;
+            this.nextTable = new AtomicReferenceArray<>(2 * oldTable.length());
+            this.forward = new ForwardingNode<>(nextTable);
+            this.claimed = new AtomicInteger(oldTable.length());
+        }
+    }
+}
\ No newline at end of file
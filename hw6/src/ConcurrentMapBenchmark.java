@@ -0,0 +1,237 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compares the throughput of ConcurrentChainedHashMap with a HashMap
+ * behind a global lock and with java.util.concurrent.ConcurrentHashMap, as
+ * more threads share the map.
+ *
+ * Every map is preloaded with the same keys, so every get hits and every
+ * put replaces a value and the size stays fixed. Each thread then does a
+ * fixed number of operations on random keys, WRITE_PERCENT of them puts
+ * and the rest gets, and the run is timed from the moment all threads are
+ * started until the last one finishes. One warmup run per map and thread
+ * count lets the JIT compile everything and is not reported. The numbers
+ * only mean something when there are at least as many cores as threads;
+ * beyond that the threads just take turns. Run it with
+ *
+ *     java ConcurrentMapBenchmark [keys] [operations per thread] [seed]
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class ConcurrentMapBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int WRITE_PERCENT = 10;
+
+    /**
+     * The operations the benchmark needs, so that one driver can run every
+     * map.
+     */
+    private interface Target {
+
+        /**
+         * Gets the value associated with key.
+         *
+         * @param key a key in the map
+         * @return the value associated with key
+         */
+        Integer get(Integer key);
+
+        /**
+         * Replaces the value associated with key.
+         *
+         * @param key a key in the map
+         * @param value the new value
+         */
+        void put(Integer key, Integer value);
+    }
+
+    /**
+     * Runs the benchmark and prints one line per map and thread count.
+     *
+     * @param args optional number of keys, number of operations per thread
+     * and random seed
+     * @throws InterruptedException if the main thread is interrupted while
+     * waiting for the workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int keyCount = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1332;
+
+        Integer[] keys = new Integer[keyCount];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        System.out.printf("%d keys, %d operations per thread, %d%% puts, %d cores, seed %d%n", keyCount,
+                operations, WRITE_PERCENT, Runtime.getRuntime().availableProcessors(), seed);
+        for (int threads : THREAD_COUNTS) {
+            run("synchronized HashMap", locked(keys), keys, threads, operations, seed);
+            run("ConcurrentChainedHashMap", chained(keys), keys, threads, operations, seed);
+            run("ConcurrentHashMap", jdk(keys), keys, threads, operations, seed);
+        }
+    }
+
+    /**
+     * Returns a hw6 HashMap holding every key, with each call made under
+     * one lock shared by all threads.
+     *
+     * @param keys the keys to preload
+     * @return the locked map
+     */
+    private static Target locked(Integer[] keys) {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+        return new Target() {
+            @Override
+            public Integer get(Integer key) {
+                synchronized (map) {
+                    return map.get(key);
+                }
+            }
+
+            @Override
+            public void put(Integer key, Integer value) {
+                synchronized (map) {
+                    map.put(key, value);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a ConcurrentChainedHashMap holding every key.
+     *
+     * @param keys the keys to preload
+     * @return the map
+     */
+    private static Target chained(Integer[] keys) {
+        ConcurrentChainedHashMap<Integer, Integer> map = new ConcurrentChainedHashMap<>();
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+        return new Target() {
+            @Override
+            public Integer get(Integer key) {
+                return map.get(key);
+            }
+
+            @Override
+            public void put(Integer key, Integer value) {
+                map.put(key, value);
+            }
+        };
+    }
+
+    /**
+     * Returns a java.util.concurrent.ConcurrentHashMap holding every key.
+     *
+     * @param keys the keys to preload
+     * @return the map
+     */
+    private static Target jdk(Integer[] keys) {
+        ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+        return new Target() {
+            @Override
+            public Integer get(Integer key) {
+                return map.get(key);
+            }
+
+            @Override
+            public void put(Integer key, Integer value) {
+                map.put(key, value);
+            }
+        };
+    }
+
+    /**
+     * Runs a warmup and then a timed run of the given number of threads on
+     * map, and prints the throughput of the timed run.
+     *
+     * @param name the name of the map
+     * @param map the preloaded map
+     * @param keys the keys in the map
+     * @param threads the number of threads
+     * @param operations the number of operations each thread does
+     * @param seed the seed of the threads' random keys
+     * @throws InterruptedException if interrupted while waiting for the
+     * workers
+     */
+    private static void run(String name, Target map, Integer[] keys, int threads, int operations, long seed)
+            throws InterruptedException {
+        time(map, keys, threads, operations, seed);
+        long nanos = time(map, keys, threads, operations, seed);
+        System.out.printf("%2d threads  %-24s %7.2f million ops/s%n", threads, name,
+                (double) threads * operations * 1000 / nanos);
+    }
+
+    /**
+     * Starts the threads, waits for all of them, and returns how long they
+     * took.
+     *
+     * @param map the preloaded map
+     * @param keys the keys in the map
+     * @param threads the number of threads
+     * @param operations the number of operations each thread does
+     * @param seed the seed of the threads' random keys
+     * @throws InterruptedException if interrupted while waiting for the
+     * workers
+     * @return the time from starting the first thread to the last one
+     * finishing, in nanoseconds
+     */
+    private static long time(Target map, Integer[] keys, int threads, int operations, long seed)
+            throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        long[] sinks = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            SplittableRandom random = new SplittableRandom(seed + t);
+            workers[t] = new Thread(() -> {
+                long sink = 0;
+                for (int i = 0; i < operations; i++) {
+                    Integer key = keys[random.nextInt(keys.length)];
+                    if (random.nextInt(100) < WRITE_PERCENT) {
+                        map.put(key, i);
+                    } else {
+                        sink += map.get(key);
+                    }
+                }
+                sinks[index] = sink;
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        long sink = 0;
+        for (long threadSink : sinks) {
+            sink += threadSink;
+        }
+        consume(sink);
+        return nanos;
+    }
+
+    /**
+     * Keeps the JIT from dropping the timed gets as dead code.
+     *
+     * @param sink the sum of the values read
+     */
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,414 @@
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A hash map with worst-case constant time lookups, using bucketized cuckoo
+ * hashing.
+ *
+ * Every key has two candidate buckets of SLOTS_PER_BUCKET slots each, one
+ * per hash function, and is always stored in one of them. get, containsKey
+ * and remove therefore look at no more than two buckets, however the keys
+ * collide. put does the extra work instead. When both buckets are full it
+ * evicts a random entry to make room, moves that entry to its other
+ * bucket, and so on. If that walk gives up after MAX_KICKS evictions, the
+ * map picks new seeds for both hash functions and rebuilds the table,
+ * doubling it after MAX_REHASHES failed seeds.
+ *
+ * Both hash functions are computed from hashCode, so no choice of seeds
+ * separates keys with equal hashCodes. At most 2 * SLOTS_PER_BUCKET such
+ * keys fit, and put rejects any more rather than growing without end.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class CuckooHashMap<K, V> {
+
+    public static final int SLOTS_PER_BUCKET = 4;
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.9;
+    public static final int MAX_KICKS = 500;
+    public static final int MAX_REHASHES = 8;
+
+    private final Random random;
+    // slots written by the current eviction walk, so it can be undone
+    private final int[] kickPath = new int[MAX_KICKS];
+    private K[] keys;
+    private V[] values;
+    private int bucketMask;
+    private int seed1;
+    private int seed2;
+    private int size;
+    private int rehashes;
+
+    /**
+     * Creates an empty map with INITIAL_CAPACITY slots.
+     */
+    public CuckooHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param initialCapacity minimum number of slots, rounded up to a power
+     * of two number of buckets
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public CuckooHashMap(int initialCapacity) {
+        this(initialCapacity, new Random());
+    }
+
+    /**
+     * Creates an empty map whose hash seeds and eviction walks are all drawn
+     * from a Random with the given seed, so that two maps given the same
+     * seed and the same operations end up with identical tables.
+     *
+     * @param initialCapacity minimum number of slots, rounded up to a power
+     * of two number of buckets
+     * @param seed the seed for the map's Random
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public CuckooHashMap(int initialCapacity, long seed) {
+        this(initialCapacity, new Random(seed));
+    }
+
+    /**
+     * Creates an empty map drawing its seeds and eviction choices from
+     * random.
+     *
+     * @param initialCapacity minimum number of slots
+     * @param random the source of seeds and eviction choices
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    private CuckooHashMap(int initialCapacity, Random random) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Attempting to create CuckooHashMap with non-positive capacity");
+        }
+        this.random = random;
+        allocate(slotsFor(initialCapacity));
+        seed1 = random.nextInt();
+        seed2 = random.nextInt();
+    }
+
+    /**
+     * Returns the table length holding at least capacity slots in a power of
+     * two number of buckets.
+     *
+     * @param capacity a positive number of slots
+     * @return the table length
+     */
+    private static int slotsFor(int capacity) {
+        int buckets = (capacity + SLOTS_PER_BUCKET - 1) / SLOTS_PER_BUCKET;
+        buckets = buckets <= 1 ? 1 : Integer.highestOneBit(buckets - 1) << 1;
+        return buckets * SLOTS_PER_BUCKET;
+    }
+
+    /**
+     * Replaces the arrays with empty arrays of the given length.
+     *
+     * @param length the new table length, SLOTS_PER_BUCKET times a power of
+     * two
+     */
+    private void allocate(int length) {
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+        bucketMask = length / SLOTS_PER_BUCKET - 1;
+    }
+
+    /**
+     * Returns the bucket a hashCode maps to under the hash function with
+     * the given seed.
+     *
+     * @param hashCode the key's hashCode
+     * @param seed the seed of the hash function
+     * @return the index of the bucket
+     */
+    private int bucket(int hashCode, int seed) {
+        int h = (hashCode ^ seed) * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return (h ^ (h >>> 13)) & bucketMask;
+    }
+
+    /**
+     * Returns the slot holding key, looking only in its two buckets.
+     *
+     * @param key the key to search for
+     * @return the slot of key, -1 if it is not in the map
+     */
+    private int find(Object key) {
+        int hashCode = key.hashCode();
+        int slot = findInBucket(bucket(hashCode, seed1), key);
+        return slot >= 0 ? slot : findInBucket(bucket(hashCode, seed2), key);
+    }
+
+    /**
+     * Returns the slot of key within one bucket.
+     *
+     * @param bucket the bucket to search
+     * @param key the key to search for
+     * @return the slot of key, -1 if it is not in the bucket
+     */
+    private int findInBucket(int bucket, Object key) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        for (int slot = start; slot < start + SLOTS_PER_BUCKET; slot++) {
+            if (keys[slot] != null && keys[slot].equals(key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores an entry in the first free slot of a bucket.
+     *
+     * @param bucket the bucket to store the entry in
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return whether or not the bucket had a free slot
+     */
+    private boolean placeInBucket(int bucket, K key, V value) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        for (int slot = start; slot < start + SLOTS_PER_BUCKET; slot++) {
+            if (keys[slot] == null) {
+                keys[slot] = key;
+                values[slot] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores a key that is not in the table in one of its two buckets,
+     * evicting other entries to their other bucket if both are full. If no
+     * room is found within MAX_KICKS evictions, every eviction is undone so
+     * the table is exactly as it was.
+     *
+     * @param key the key to store
+     * @param value the value to store
+     * @return whether or not the entry was stored
+     */
+    private boolean place(K key, V value) {
+        int hashCode = key.hashCode();
+        int first = bucket(hashCode, seed1);
+        int second = bucket(hashCode, seed2);
+        if (placeInBucket(first, key, value) || placeInBucket(second, key, value)) {
+            return true;
+        }
+        int bucket = random.nextBoolean() ? first : second;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * SLOTS_PER_BUCKET + random.nextInt(SLOTS_PER_BUCKET);
+            kickPath[kick] = slot;
+            K evictedKey = keys[slot];
+            V evictedValue = values[slot];
+            keys[slot] = key;
+            values[slot] = value;
+            key = evictedKey;
+            value = evictedValue;
+            hashCode = key.hashCode();
+            first = bucket(hashCode, seed1);
+            bucket = first == bucket ? bucket(hashCode, seed2) : first;
+            if (placeInBucket(bucket, key, value)) {
+                return true;
+            }
+        }
+        // walk the evictions back, each slot taking back the entry it lost
+        for (int kick = MAX_KICKS - 1; kick >= 0; kick--) {
+            int slot = kickPath[kick];
+            K placedKey = keys[slot];
+            V placedValue = values[slot];
+            keys[slot] = key;
+            values[slot] = value;
+            key = placedKey;
+            value = placedValue;
+        }
+        return false;
+    }
+
+    /**
+     * Rebuilds the table with new seeds, adding one extra entry if extraKey
+     * is not null. After every MAX_REHASHES failed seeds the length doubles.
+     * The map is only changed once a rebuild succeeds.
+     *
+     * @param length the table length to try first
+     * @param extraKey a key not in the table to add, or null
+     * @param extraValue the value for extraKey
+     * @throws IllegalArgumentException if the table would have to grow to
+     * more than SLOTS_PER_BUCKET slots per entry, which happens when more
+     * keys share a hashCode than their two buckets can hold
+     */
+    private void rehash(int length, K extraKey, V extraValue) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int oldSeed1 = seed1;
+        int oldSeed2 = seed2;
+        int entries = extraKey == null ? size : size + 1;
+        for (int attempt = 1; !rebuild(length, oldKeys, oldValues, extraKey, extraValue); attempt++) {
+            if (attempt % MAX_REHASHES == 0) {
+                length *= 2;
+                if (length > (long) entries * SLOTS_PER_BUCKET) {
+                    keys = oldKeys;
+                    values = oldValues;
+                    bucketMask = oldKeys.length / SLOTS_PER_BUCKET - 1;
+                    seed1 = oldSeed1;
+                    seed2 = oldSeed2;
+                    throw new IllegalArgumentException("Attempting to insert more keys with equal hashCodes than CuckooHashMap can hold");
+                }
+            }
+        }
+        rehashes++;
+    }
+
+    /**
+     * Tries to place every entry of the old table, plus the extra entry,
+     * into a new table with new seeds.
+     *
+     * @param length the length of the new table
+     * @param oldKeys the keys of the old table
+     * @param oldValues the values of the old table
+     * @param extraKey a key to add, or null
+     * @param extraValue the value for extraKey
+     * @return whether or not every entry was placed
+     */
+    private boolean rebuild(int length, K[] oldKeys, V[] oldValues, K extraKey, V extraValue) {
+        allocate(length);
+        seed1 = random.nextInt();
+        seed2 = random.nextInt();
+        if (extraKey != null && !place(extraKey, extraValue)) {
+            return false;
+        }
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != null && !place(oldKeys[slot], oldValues[slot])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the given key-value pair to the map, or replaces the value if the
+     * key is already in the map. As in HashMap, the table first grows to
+     * 2 * old length if one more entry would exceed the max load factor.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null, or if the
+     * key's hashCode is shared by too many keys already in the map
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to insert null key into CuckooHashMap");
+        } else if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into CuckooHashMap");
+        }
+        if (size + 1 > MAX_LOAD_FACTOR * keys.length) {
+            rehash(2 * keys.length, null, null);
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            V prev = values[slot];
+            values[slot] = value;
+            return prev;
+        }
+        if (!place(key, value)) {
+            rehash(keys.length, key, value);
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the CuckooHashMap");
+        }
+        return values[slot];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if CuckooHashMap contains null key");
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from CuckooHashMap");
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in CuckooHashMap");
+        }
+        V removed = values[slot];
+        keys[slot] = null;
+        values[slot] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Clears the map and resets it to INITIAL_CAPACITY slots.
+     */
+    public void clear() {
+        allocate(slotsFor(INITIAL_CAPACITY));
+        size = 0;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the length of the table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns how many times the table was rebuilt with new seeds, whether
+     * to grow or because an insert found no room.
+     *
+     * @return the number of rebuilds
+     */
+    public int rehashCount() {
+        return rehashes;
+    }
+}
\ No newline at end of file
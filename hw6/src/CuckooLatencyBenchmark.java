@@ -0,0 +1,128 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the get latency distribution of CuckooHashMap with the chained
+ * HashMap.
+ *
+ * Both maps are filled with the same random keys, warmed up, and then each
+ * get is timed on its own with System.nanoTime. The sorted timings give the
+ * median and the tail percentiles. nanoTime itself adds a few tens of
+ * nanoseconds to every timing, and the max mostly shows GC and JIT pauses
+ * rather than either map. Run it with
+ *
+ *     java CuckooLatencyBenchmark [entries] [lookups] [seed]
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class CuckooLatencyBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark and prints one line of percentiles per map.
+     *
+     * @param args optional number of entries, number of timed lookups and
+     * random seed
+     */
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1332;
+
+        Random random = new Random(seed);
+        Integer[] keys = new Integer[entries];
+        HashMap<Integer, Integer> chained = new HashMap<>();
+        CuckooHashMap<Integer, Integer> cuckoo = new CuckooHashMap<>(CuckooHashMap.INITIAL_CAPACITY, seed);
+        for (int i = 0; i < entries; i++) {
+            keys[i] = random.nextInt();
+            chained.put(keys[i], i);
+            cuckoo.put(keys[i], i);
+        }
+        Integer[] probes = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            probes[i] = keys[random.nextInt(entries)];
+        }
+
+        long[] chainedTimes = new long[lookups];
+        long[] cuckooTimes = new long[lookups];
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            timeChained(chained, probes, chainedTimes);
+            timeCuckoo(cuckoo, probes, cuckooTimes);
+        }
+        timeChained(chained, probes, chainedTimes);
+        timeCuckoo(cuckoo, probes, cuckooTimes);
+        System.out.printf("%d entries, %d timed gets, seed %d%n", entries, lookups, seed);
+        print("HashMap", chainedTimes);
+        print("CuckooHashMap", cuckooTimes);
+    }
+
+    /**
+     * Times each get on the chained map.
+     *
+     * @param map the map to query
+     * @param probes the keys to get, in order
+     * @param times where to store the time of each get, in nanoseconds
+     */
+    private static void timeChained(HashMap<Integer, Integer> map, Integer[] probes, long[] times) {
+        long sink = 0;
+        for (int i = 0; i < probes.length; i++) {
+            long start = System.nanoTime();
+            sink += map.get(probes[i]);
+            times[i] = System.nanoTime() - start;
+        }
+        consume(sink);
+    }
+
+    /**
+     * Times each get on the cuckoo map.
+     *
+     * @param map the map to query
+     * @param probes the keys to get, in order
+     * @param times where to store the time of each get, in nanoseconds
+     */
+    private static void timeCuckoo(CuckooHashMap<Integer, Integer> map, Integer[] probes, long[] times) {
+        long sink = 0;
+        for (int i = 0; i < probes.length; i++) {
+            long start = System.nanoTime();
+            sink += map.get(probes[i]);
+            times[i] = System.nanoTime() - start;
+        }
+        consume(sink);
+    }
+
+    /**
+     * Keeps the JIT from dropping the timed gets as dead code.
+     *
+     * @param sink the sum of the values read
+     */
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+
+    /**
+     * Prints the median, p99, p99.9 and max of a set of timings.
+     *
+     * @param name the name of the map
+     * @param times the timings in nanoseconds; sorted in place
+     */
+    private static void print(String name, long[] times) {
+        Arrays.sort(times);
+        System.out.printf("%-14s p50 %6d ns  p99 %6d ns  p99.9 %6d ns  max %8d ns%n", name,
+                percentile(times, 0.5), percentile(times, 0.99), percentile(times, 0.999), times[times.length - 1]);
+    }
+
+    /**
+     * Returns a percentile of sorted timings.
+     *
+     * @param sorted the timings, in ascending order
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the timing at that percentile
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) (fraction * sorted.length))];
+    }
+}
\ No newline at end of file
@@ -1,8 +1,15 @@
-import java.util.HashSet;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
-import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Your implementation of HashMap.
@@ -40,6 +47,38 @@ public class HashMap<K, V> {
         table = new MapEntry[initialCapacity];
     }
 
+    /**
+     * Creates a hash map with no entries whose backing array length is a
+     * power of two, at least initialCapacity.
+     *
+     * Only maps made by this method are in power of two mode: their buckets
+     * are found by masking a spread hash instead of taking a remainder, and
+     * the table grows to 2 * old length so it stays a power of two. See
+     * getBucket. A map made with a constructor keeps the remainder buckets
+     * and 2 * old length + 1 growth whatever its length.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param initialCapacity minimum capacity of the backing array
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     * @return an empty power of two sized map
+     */
+    public static <K, V> HashMap<K, V> withPowerOfTwoCapacity(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Attempting to create HashMap with non-positive capacity");
+        }
+        return new PowerOfTwoHashMap<>(powerOfTwoAtLeast(initialCapacity));
+    }
+
+    /*
+     * Returns whether this map was made by withPowerOfTwoCapacity. The mode
+     * is the map's class rather than a field, and the class is private and
+     * final, so nothing else can turn it on.
+     */
+    private boolean isPowerOfTwoMode() {
+        return this instanceof PowerOfTwoHashMap;
+    }
+
     /**
      * Adds the given key-value pair to the HashMap.
      *
@@ -80,7 +119,7 @@ public class HashMap<K, V> {
             throw new IllegalArgumentException("Attempting to insert null value into HashMap");
         }
         if (size+1 > MAX_LOAD_FACTOR * table.length) {
-            resizeBackingTable(2*table.length + 1);
+            resizeBackingTable(isPowerOfTwoMode() ? 2*table.length : 2*table.length + 1);
         }
         int bucket = getBucket(key);
         MapEntry<K, V> entry = getEntry(bucket, key);
@@ -108,15 +147,17 @@ public class HashMap<K, V> {
      *
      * Remember, you cannot simply copy the entries over to the new array.
      * You will have to rehash all of the entries and add them to the new index
-     * of the new table. Feel free to create new MapEntry objects to use when
-     * adding to the new table to avoid pointer dependency issues between the
-     * new and old tables.
+     * of the new table. The existing MapEntry objects are relinked into the
+     * new table rather than copied, so resizing allocates nothing but the
+     * new array; each entry's next pointer is read before it is relinked.
      *
      * Also, since resizing the backing table is working with the non-duplicate
      * data already in the table, you shouldn't explicitly check for
      * duplicates. This matters especially for external chaining since it can
      * cause the performance of resizing to go from linear to quadratic time.
      *
+     * A map in power of two mode rounds length up to a power of two.
+     *
      * @param length new length of the backing table
      * @throws IllegalArgumentException if length is non-positive or less than
      * the number of items in the hash map.
@@ -129,13 +170,18 @@ public class HashMap<K, V> {
             String message = String.format("Attempting to resize backing table of size %d to length %d", size, length);
             throw new IllegalArgumentException(message);
         }
+        if (isPowerOfTwoMode()) {
+            length = powerOfTwoAtLeast(length);
+        }
         MapEntry<K, V>[] newTable = new MapEntry[length];
         for (int i = 0; i < table.length; i++) {
-            for (MapEntry<K, V> curr = table[i]; curr != null; curr = curr.getNext()) {
-                K key = curr.getKey();
-                V value = curr.getValue();
-                int bucket = getBucket(key);
-                newTable[bucket] = new MapEntry<>(key, value, newTable[bucket]);
+            MapEntry<K, V> curr = table[i];
+            while (curr != null) {
+                MapEntry<K, V> next = curr.getNext();
+                int bucket = getBucket(curr.getKey(), length);
+                curr.setNext(newTable[bucket]);
+                newTable[bucket] = curr;
+                curr = next;
             }
         }
         table = newTable;
@@ -151,7 +197,7 @@ public class HashMap<K, V> {
      */
     public V remove(K key) {
         if (key == null) {
-            throw new IllegalArgumentException("Attempting to remove key not present in HashMap");
+            throw new IllegalArgumentException("Attempting to remove null key from HashMap");
         }
         int bucket = getBucket(key);
         MapEntry<K, V> prev = null;
@@ -168,6 +214,7 @@ public class HashMap<K, V> {
             } else {
                 prev.setNext(curr.getNext());
             }
+            size--;
             return removed;
         }
         throw new NoSuchElementException("Cannot remove: provided key is not present in HashMap");
@@ -193,6 +240,24 @@ public class HashMap<K, V> {
         return entry.getValue();
     }
 
+    /**
+     * Gets the value associated with the given key, or a default if there
+     * is none. Unlike containsKey followed by get, this walks the chain
+     * once.
+     *
+     * @param key the key to search for
+     * @param defaultValue the value to return if the key is not in the map
+     * @throws IllegalArgumentException if key is null
+     * @return the value associated with key, defaultValue if there is none
+     */
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        MapEntry<K, V> entry = getEntry(getBucket(key), key);
+        return entry == null ? defaultValue : entry.getValue();
+    }
+
     /**
      * Returns whether or not the key is in the map.
      *
@@ -212,60 +277,261 @@ public class HashMap<K, V> {
      * used instead of a List view because keys are unique in a HashMap, which
      * is a property that elements of Sets also share.
      *
-     * Use java.util.HashSet.
+     * The view is live: nothing is copied, it walks the table buckets
+     * directly, and it reflects later changes to the map. Removing from the
+     * view or through its iterator removes from the map.
      *
      * @return set of keys in this map
      */
     public Set<K> keySet() {
-        Set<K> keys = new HashSet<>();
-        for (int i = 0; i < table.length; i++) {
-            for (MapEntry<K, V> curr = table[i]; curr != null; curr = curr.getNext()) {
-                keys.add(curr.getKey());
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new HashIterator<>(MapEntry::getKey);
             }
-        }
-        return keys;
+
+            @Override
+            public Spliterator<K> spliterator() {
+                return new HashSpliterator<>(MapEntry::getKey, Spliterator.DISTINCT);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o != null && getEntry(getBucket((K) o), (K) o) != null;
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (!contains(o)) {
+                    return false;
+                }
+                HashMap.this.remove((K) o);
+                return true;
+            }
+
+            @Override
+            public void clear() {
+                HashMap.this.clear();
+            }
+        };
     }
 
     /**
      * Returns a List view of the values contained in this map.
      *
-     * Use java.util.ArrayList or java.util.LinkedList.
-     *
-     * You should iterate over the table in order of increasing index, and
-     * iterate over each chain from front to back. Add entries to the List in
-     * the order in which they are traversed.
+     * The values are in table order: increasing index, and each chain from
+     * front to back. The view is live and copies nothing. Iterate over it
+     * rather than calling get(i), since indexed access walks the table from
+     * the start.
      *
      * @return list of values in this map
      */
     public List<V> values() {
-        List<V> values = new ArrayList<>();
-        for (int i = 0; i < table.length; i++) {
-            for (MapEntry<K, V> curr = table[i]; curr != null; curr = curr.getNext()) {
-                values.add(curr.getValue());
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Attempting to get value at index " + index);
+                }
+                Iterator<V> iterator = iterator();
+                for (int i = 0; i < index; i++) {
+                    iterator.next();
+                }
+                return iterator.next();
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return new HashIterator<>(MapEntry::getValue);
+            }
+
+            @Override
+            public Spliterator<V> spliterator() {
+                return new HashSpliterator<>(MapEntry::getValue, Spliterator.ORDERED);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                // AbstractList compares with listIterator, which would call
+                // get(i) for every index
+                if (o == this) {
+                    return true;
+                }
+                if (!(o instanceof List)) {
+                    return false;
+                }
+                Iterator<V> mine = iterator();
+                Iterator<?> theirs = ((List<?>) o).iterator();
+                while (mine.hasNext() && theirs.hasNext()) {
+                    if (!Objects.equals(mine.next(), theirs.next())) {
+                        return false;
+                    }
+                }
+                return !mine.hasNext() && !theirs.hasNext();
+            }
+
+            @Override
+            public int hashCode() {
+                return super.hashCode();
+            }
+        };
+    }
+
+    /**
+     * Returns a Set view of the entries contained in this map. Like keySet,
+     * the view is live and copies nothing, and setValue on an entry writes
+     * through to the map.
+     *
+     * @return set of entries in this map
+     */
+    public Set<MapEntry<K, V>> entrySet() {
+        return new AbstractSet<MapEntry<K, V>>() {
+            @Override
+            public Iterator<MapEntry<K, V>> iterator() {
+                return new HashIterator<>(entry -> entry);
+            }
+
+            @Override
+            public Spliterator<MapEntry<K, V>> spliterator() {
+                return new HashSpliterator<>(entry -> entry, Spliterator.DISTINCT);
+            }
+
+            @Override
+            public int size() {
+                return size;
             }
+
+            @Override
+            public void clear() {
+                HashMap.this.clear();
+            }
+        };
+    }
+
+    /**
+     * Calls action on every key-value pair, in table order, without
+     * creating an iterator.
+     *
+     * @param action the action to perform on each pair
+     * @throws IllegalArgumentException if action is null
+     * @throws java.util.ConcurrentModificationException if action adds or
+     * removes entries
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Attempting to iterate HashMap with null action");
+        }
+        MapEntry<K, V>[] expectedTable = table;
+        int expectedSize = size;
+        for (MapEntry<K, V> head : expectedTable) {
+            for (MapEntry<K, V> curr = head; curr != null; curr = curr.getNext()) {
+                action.accept(curr.getKey(), curr.getValue());
+            }
+        }
+        if (table != expectedTable || size != expectedSize) {
+            throw new ConcurrentModificationException("HashMap was modified during forEach");
+        }
+    }
+
+    /**
+     * Returns how many buckets hold each number of entries. A histogram
+     * with a long tail means the keys' hashCodes collide more than they
+     * should, whether by accident or by design.
+     *
+     * The table is read once, so a resize by another thread during the walk
+     * leaves the histogram describing the old table rather than failing.
+     *
+     * @return an array whose element i is the number of buckets holding i
+     * entries, as long as the longest chain plus one
+     */
+    public int[] chainLengthHistogram() {
+        MapEntry<K, V>[] buckets = table;
+        int[] lengths = new int[buckets.length];
+        int longest = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            for (MapEntry<K, V> curr = buckets[i]; curr != null; curr = curr.getNext()) {
+                lengths[i]++;
+            }
+            longest = Math.max(longest, lengths[i]);
+        }
+        int[] histogram = new int[longest + 1];
+        for (int length : lengths) {
+            histogram[length]++;
         }
-        return values;
+        return histogram;
     }
 
     /**
      * Clears the table and resets it to a new table of length INITIAL_CAPACITY.
      */
     public void clear() {
-        table = new MapEntry[INITIAL_CAPACITY];
+        table = new MapEntry[isPowerOfTwoMode() ? powerOfTwoAtLeast(INITIAL_CAPACITY) : INITIAL_CAPACITY];
         size = 0;
     }
 
     /*
      * Computes the bucket (table index) of a given key.
-     * The bucket is obtained by 
+     *
+     * In power of two mode, the bucket is the low bits of the spread
+     * hashCode, found with a mask instead of an integer division.
+     * Otherwise the bucket is obtained by
      *  1) computing the hashCode of the key
      *  2) taking the remainder of hashCode / table length
      *  3) computing the absolute value of the remainder
+     * The remainder is taken before the absolute value, so even a hashCode
+     * of Integer.MIN_VALUE maps into the table.
      *
      * @param key the key required to compute the bucket
      */
     private int getBucket(K key) {
-        return Math.abs(key.hashCode() % table.length);
+        return getBucket(key, table.length);
+    }
+
+    /*
+     * Computes the bucket of a given key in a table of the given length.
+     * Used while resizing, when the new table is not yet in place.
+     *
+     * @param key the key required to compute the bucket
+     * @param length the length of the table
+     */
+    private int getBucket(K key, int length) {
+        if (isPowerOfTwoMode()) {
+            return spread(key.hashCode()) & (length - 1);
+        }
+        return Math.abs(key.hashCode() % length);
+    }
+
+    /*
+     * Mixes the bits of a hashCode so that the low bits used by a mask
+     * depend on every bit of the input. The multiply carries low bits up and
+     * the shift folds high bits down, so keys that differ only in their high
+     * bits (or are all multiples of the table length) still spread out.
+     *
+     * @param hashCode the hashCode to mix
+     * @return the spread hash
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /*
+     * Returns the smallest power of two that is at least capacity.
+     *
+     * @param capacity a positive capacity
+     */
+    private static int powerOfTwoAtLeast(int capacity) {
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
     }
 
     /*
@@ -277,14 +543,28 @@ public class HashMap<K, V> {
      * @return MapEntry in the given bucket matching the given key
      */
     private MapEntry<K, V> getEntry(int bucket, K key) {
+        int probes = 0;
         for (MapEntry<K, V> curr = table[bucket]; curr != null; curr = curr.getNext()) {
+            probes++;
             if (curr.getKey().equals(key)) {
+                probed(probes);
                 return curr;
             }
         }
+        probed(probes);
         return null;
     }
 
+    /**
+     * Called by every lookup with the number of entries it compared keys
+     * against, including the match if there was one. Does nothing here;
+     * InstrumentedHashMap overrides it to keep chain length statistics.
+     *
+     * @param probes the number of entries the lookup looked at
+     */
+    protected void probed(int probes) {
+    }
+
     /**
      * Returns the size of the HashMap.
      *
@@ -310,4 +590,197 @@ public class HashMap<K, V> {
         // DO NOT MODIFY THIS METHOD!
         return table;
     }
+
+    /*
+     * Throws if the map was resized or changed size since a traversal took
+     * its snapshot. Without a modification counter this is best effort: a
+     * remove followed by a put in between is not noticed.
+     *
+     * @param expectedTable the table when the traversal started
+     * @param expectedSize the size when the traversal started
+     */
+    private void checkForComodification(MapEntry<K, V>[] expectedTable, int expectedSize) {
+        if (table != expectedTable || size != expectedSize) {
+            throw new ConcurrentModificationException("HashMap was modified during iteration");
+        }
+    }
+
+    /**
+     * A HashMap in power of two mode. Only withPowerOfTwoCapacity creates
+     * one; it adds no state or behavior of its own.
+     */
+    private static final class PowerOfTwoHashMap<K, V> extends HashMap<K, V> {
+
+        /**
+         * Creates an empty map in power of two mode.
+         *
+         * @param initialCapacity a power of two capacity
+         */
+        private PowerOfTwoHashMap(int initialCapacity) {
+            super(initialCapacity);
+        }
+    }
+
+    /**
+     * A fail-fast iterator walking the table buckets in order, used by all
+     * three views. mapper picks out what the view returns from each entry.
+     */
+    private class HashIterator<T> implements Iterator<T> {
+        private final Function<MapEntry<K, V>, T> mapper;
+        private MapEntry<K, V>[] expectedTable = table;
+        private int expectedSize = size;
+        // next bucket to look in once the current chain runs out
+        private int bucket;
+        private MapEntry<K, V> next;
+        private MapEntry<K, V> lastReturned;
+
+        /**
+         * Creates an iterator positioned before the first entry.
+         *
+         * @param mapper maps each entry to the returned element
+         */
+        private HashIterator(Function<MapEntry<K, V>, T> mapper) {
+            this.mapper = mapper;
+            advance(null);
+        }
+
+        /**
+         * Moves next to the entry after from, skipping empty buckets.
+         *
+         * @param from the current entry, null to start from bucket
+         */
+        private void advance(MapEntry<K, V> from) {
+            next = from == null ? null : from.getNext();
+            while (next == null && bucket < expectedTable.length) {
+                next = expectedTable[bucket++];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification(expectedTable, expectedSize);
+            if (next == null) {
+                throw new NoSuchElementException("Attempting to iterate past the end of HashMap");
+            }
+            lastReturned = next;
+            advance(next);
+            return mapper.apply(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("Attempting to remove from HashMap iterator before next");
+            }
+            checkForComodification(expectedTable, expectedSize);
+            HashMap.this.remove(lastReturned.getKey());
+            expectedSize = size;
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * A fail-fast spliterator over a range of table buckets. trySplit hands
+     * the first half of the remaining buckets to a new spliterator, so a
+     * parallel stream can walk the table from several threads at once.
+     */
+    private class HashSpliterator<T> implements Spliterator<T> {
+        private final Function<MapEntry<K, V>, T> mapper;
+        private final int characteristics;
+        private final MapEntry<K, V>[] expectedTable;
+        private final int expectedSize;
+        private int bucket;
+        private final int fence;
+        private MapEntry<K, V> current;
+        private long estimate;
+
+        /**
+         * Creates a spliterator over the whole table.
+         *
+         * @param mapper maps each entry to the returned element
+         * @param characteristics the characteristics of the view
+         */
+        private HashSpliterator(Function<MapEntry<K, V>, T> mapper, int characteristics) {
+            this(mapper, characteristics, table, size, 0, table.length, size);
+        }
+
+        /**
+         * Creates a spliterator over the buckets [bucket, fence).
+         *
+         * @param mapper maps each entry to the returned element
+         * @param characteristics the characteristics of the view
+         * @param expectedTable the table when the traversal started
+         * @param expectedSize the size when the traversal started
+         * @param bucket the first bucket, inclusive
+         * @param fence the last bucket, exclusive
+         * @param estimate the estimated number of entries in the range
+         */
+        private HashSpliterator(Function<MapEntry<K, V>, T> mapper, int characteristics,
+                MapEntry<K, V>[] expectedTable, int expectedSize, int bucket, int fence, long estimate) {
+            this.mapper = mapper;
+            this.characteristics = characteristics;
+            this.expectedTable = expectedTable;
+            this.expectedSize = expectedSize;
+            this.bucket = bucket;
+            this.fence = fence;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            checkForComodification(expectedTable, expectedSize);
+            while (current == null && bucket < fence) {
+                current = expectedTable[bucket++];
+            }
+            if (current == null) {
+                return false;
+            }
+            MapEntry<K, V> entry = current;
+            current = current.getNext();
+            action.accept(mapper.apply(entry));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (MapEntry<K, V> curr = current; curr != null; curr = curr.getNext()) {
+                action.accept(mapper.apply(curr));
+            }
+            current = null;
+            for (; bucket < fence; bucket++) {
+                for (MapEntry<K, V> curr = expectedTable[bucket]; curr != null; curr = curr.getNext()) {
+                    action.accept(mapper.apply(curr));
+                }
+            }
+            checkForComodification(expectedTable, expectedSize);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (bucket + fence) >>> 1;
+            if (current != null || mid <= bucket) {
+                return null;
+            }
+            estimate >>>= 1;
+            Spliterator<T> prefix = new HashSpliterator<>(mapper, characteristics,
+                expectedTable, expectedSize, bucket, mid, estimate);
+            bucket = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
 }
@@ -9,6 +9,13 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 /**
  * A set of basic tests to test your HashMap.
  *
@@ -69,12 +76,15 @@ public class HashMapStudentTests {
         // [(0, A), (1, B), (2, C), _, (4, E), _, _, _, _, _, _]
         assertEquals("D", map.remove(new Integer(3)));
         assertEquals(null, map.getTable()[3]);
+        assertEquals(4, map.size());
     }
 
     @Test(timeout = TIMEOUT)
     public void testGet() {
         // [(0, A), (1, B), (2, C), (3, D), (4, E), _, _, _, _, _, _]
         assertEquals("D", map.get(new Integer(3)));
+        assertEquals("D", map.getOrDefault(3, null));
+        assertEquals(null, map.getOrDefault(9, null));
     }
 
     @Test(timeout = TIMEOUT)
@@ -120,4 +130,512 @@ public class HashMapStudentTests {
         }
         assertEquals(0, map.size());
     }
+
+    @Test(timeout = TIMEOUT)
+    public void testRobinHoodHashMap() {
+        RobinHoodHashMap<Integer, String> robinHood = new RobinHoodHashMap<>(4, 0.9);
+        // multiples of 65536 have all-zero low 16 bits, which a bare mask would
+        // send to one slot; the map spreads hashes, so this checks that those
+        // keys are still stored, found, replaced and removed correctly
+        for (int i = 0; i < 20; i++) {
+            assertEquals(null, robinHood.put(i * 65536, "v" + i));
+        }
+        assertEquals(20, robinHood.size());
+        assertEquals(32, robinHood.capacity());
+        assertEquals("v7", robinHood.put(7 * 65536, "seven"));
+        assertEquals("seven", robinHood.get(7 * 65536));
+
+        assertEquals("v3", robinHood.remove(3 * 65536));
+        assertEquals(false, robinHood.containsKey(3 * 65536));
+        assertEquals(19, robinHood.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i != 3, robinHood.containsKey(i * 65536));
+        }
+        assertEquals(19, robinHood.keySet().size());
+        assertEquals(19, robinHood.values().size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPowerOfTwoCapacity() {
+        map = HashMap.withPowerOfTwoCapacity(10);
+        assertEquals(16, map.getTable().length);
+        // multiples of 16 would all share bucket 0 without spreading
+        for (int i = 0; i < 10; i++) {
+            map.put(i * 16, "v" + i);
+        }
+        int used = 0;
+        for (MapEntry<Integer, String> entry : map.getTable()) {
+            if (entry != null) {
+                used++;
+            }
+        }
+        assertEquals(true, used > 1);
+
+        map.put(Integer.MIN_VALUE, "min");
+        assertEquals(32, map.getTable().length);
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        for (int i = 0; i < 10; i++) {
+            assertEquals("v" + i, map.get(i * 16));
+        }
+
+        map.clear();
+        assertEquals(16, map.getTable().length);
+        map.resizeBackingTable(20);
+        assertEquals(32, map.getTable().length);
+
+        // a power of two length alone does not turn the mode on
+        HashMap<Integer, String> plain = new HashMap<>(16);
+        plain.put(3, "three");
+        assertEquals((Integer) 3, plain.getTable()[3].getKey());
+        for (int i = 0; i < 11; i++) {
+            plain.put(i, "v" + i);
+        }
+        assertEquals(33, plain.getTable().length);
+        plain.resizeBackingTable(16);
+        assertEquals(16, plain.getTable().length);
+        assertEquals((Integer) 3, plain.getTable()[3].getKey());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testIncrementalResize() {
+        IncrementalHashMap<Integer, String> incremental = new IncrementalHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            incremental.put(i, "v" + i);
+        }
+        assertEquals(false, incremental.isResizing());
+        // the 11th entry crosses the load factor and starts a resize
+        incremental.put(10, "v10");
+        assertEquals(true, incremental.isResizing());
+        assertEquals(32, incremental.getTable().length);
+        for (int i = 0; i < 11; i++) {
+            assertEquals("v" + i, incremental.get(i));
+        }
+        assertEquals(false, incremental.isResizing());
+        assertEquals("v5", incremental.remove(5));
+        assertEquals(10, incremental.size());
+        assertEquals(10, incremental.keySet().size());
+    }
+
+    @Test(timeout = 2000)
+    public void testConcurrentChainedHashMap() throws InterruptedException {
+        ConcurrentChainedHashMap<Integer, Integer> concurrent = new ConcurrentChainedHashMap<>(2);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int base = t * 10000;
+            threads[t] = new Thread(() -> {
+                for (int i = base; i < base + 10000; i++) {
+                    concurrent.put(i, i);
+                }
+                for (int i = base; i < base + 10000; i += 2) {
+                    concurrent.remove(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(20000, concurrent.size());
+        assertEquals(65536, concurrent.capacity());
+        for (int i = 0; i < 40000; i++) {
+            assertEquals(i % 2 == 1, concurrent.containsKey(i));
+        }
+        assertEquals((Integer) 7, concurrent.put(7, 70));
+        assertEquals((Integer) 70, concurrent.get(7));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPrimitiveMaps() {
+        Int2IntHashMap ints = new Int2IntHashMap(4, -1);
+        Long2LongHashMap longs = new Long2LongHashMap();
+        Int2ObjectHashMap<String> objects = new Int2ObjectHashMap<>();
+        // key 0 is stored outside the table, so it is a valid key
+        for (int i = 0; i < 20; i++) {
+            assertEquals(-1, ints.put(i, i * 10));
+            assertEquals(0L, longs.put(i * 4294967296L, i));
+            assertEquals(null, objects.put(i * 65536, "v" + i));
+        }
+        assertEquals(20, ints.size());
+        assertEquals(32, ints.capacity());
+        assertEquals(0, ints.get(0));
+        assertEquals(190, ints.put(19, 0));
+        assertEquals(-1, ints.getOrDefault(20, -1));
+        assertEquals(7L, longs.get(7 * 4294967296L));
+        assertEquals("v0", objects.get(0));
+        assertEquals(0, objects.keys()[19]);
+        assertEquals(0L, longs.keys()[19]);
+
+        assertEquals(0, ints.remove(0));
+        assertEquals(30, ints.remove(3));
+        assertEquals(false, ints.containsKey(0));
+        assertEquals(false, ints.containsKey(3));
+        assertEquals(18, ints.keys().length);
+        for (int i = 1; i < 20; i++) {
+            assertEquals(i != 3, ints.containsKey(i));
+        }
+        assertEquals(3L, longs.remove(3 * 4294967296L));
+        assertEquals(19, longs.size());
+        assertEquals("v5", objects.remove(5 * 65536));
+        assertEquals(19, objects.values().size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTreeifiedHashMap() {
+        // "Aa" and "BB" have the same hashCode, so every string made of
+        // 10 such blocks lands in one bucket
+        List<String> colliding = new ArrayList<>();
+        for (int mask = 0; mask < 1024; mask++) {
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 0; bit < 10; bit++) {
+                sb.append((mask & (1 << bit)) == 0 ? "Aa" : "BB");
+            }
+            colliding.add(sb.toString());
+        }
+        TreeifiedHashMap<String, Integer> treeified = new TreeifiedHashMap<>();
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals(null, treeified.put(colliding.get(i), i));
+        }
+        assertEquals(1, treeified.treeBinCount());
+        int[] histogram = treeified.chainLengthHistogram();
+        assertEquals(1025, histogram.length);
+        assertEquals(1, histogram[1024]);
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals((Integer) i, treeified.get(colliding.get(i)));
+        }
+        for (int i = 6; i < colliding.size(); i++) {
+            assertEquals((Integer) i, treeified.remove(colliding.get(i)));
+        }
+        assertEquals(0, treeified.treeBinCount());
+        assertEquals(6, treeified.size());
+        assertEquals(true, treeified.containsKey(colliding.get(5)));
+
+        histogram = map.chainLengthHistogram();
+        assertEquals(2, histogram.length);
+        assertEquals(6, histogram[0]);
+        assertEquals(5, histogram[1]);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBoundedCache() {
+        BoundedCache<Integer, String> lru = new BoundedCache<>(3, BoundedCache.Policy.LRU);
+        lru.put(1, "one");
+        lru.put(2, "two");
+        lru.put(3, "three");
+        assertEquals("one", lru.get(1));
+        lru.put(4, "four");
+        assertEquals(false, lru.containsKey(2));
+        assertEquals(3, lru.size());
+
+        BoundedCache<Integer, String> lfu = new BoundedCache<>(3, BoundedCache.Policy.LFU);
+        lfu.put(1, "one");
+        lfu.put(2, "two");
+        lfu.put(3, "three");
+        lfu.get(1);
+        lfu.get(3);
+        lfu.put(4, "four");
+        lfu.put(5, "five");
+        assertEquals(true, lfu.containsKey(1));
+        assertEquals(true, lfu.containsKey(3));
+        assertEquals(false, lfu.containsKey(4));
+
+        // a long scan of one-off keys does not flush the keys used repeatedly
+        BoundedCache<Integer, Integer> tinyLfu = new BoundedCache<>(100, BoundedCache.Policy.TINY_LFU);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (tinyLfu.getIfPresent(i) == null) {
+                    tinyLfu.put(i, i);
+                }
+            }
+        }
+        for (int i = 1000; i < 3000; i++) {
+            tinyLfu.put(i, i);
+        }
+        int survivors = 0;
+        for (int i = 0; i < 50; i++) {
+            if (tinyLfu.containsKey(i)) {
+                survivors++;
+            }
+        }
+        assertEquals(true, survivors >= 45);
+
+        long[] now = {0};
+        BoundedCache<String, String> loading = new BoundedCache<>(10, BoundedCache.Policy.LRU,
+            (key, value) -> value.length(), 100, String::toUpperCase, () -> now[0]);
+        assertEquals("ABCD", loading.get("abcd"));
+        assertEquals("ABCD", loading.get("abcd"));
+        assertEquals("EFGHIJ", loading.get("efghij"));
+        assertEquals(10, loading.weightedSize());
+        loading.get("k");
+        assertEquals(false, loading.containsKey("abcd"));
+        now[0] = 100;
+        assertEquals(false, loading.containsKey("efghij"));
+        BoundedCache.Stats stats = loading.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+        assertEquals(3, stats.getLoadCount());
+        assertEquals(2, stats.getEvictionCount());
+
+        // an entry heavier than the whole cache must not flush it
+        for (BoundedCache.Policy policy : BoundedCache.Policy.values()) {
+            BoundedCache<String, String> warm = new BoundedCache<>(10, policy,
+                (key, value) -> value.length(), 0, null, null);
+            warm.put("a", "aaa");
+            warm.put("b", "bbbb");
+            assertEquals(null, warm.put("c", "ccccccccccc"));
+            assertEquals(false, warm.containsKey("c"));
+            assertEquals("aaa", warm.get("a"));
+            assertEquals("bbbb", warm.get("b"));
+            assertEquals(7, warm.weightedSize());
+            assertEquals("aaa", warm.put("a", "aaaaaaaaaaa"));
+            assertEquals(false, warm.containsKey("a"));
+            assertEquals("bbbb", warm.get("b"));
+            assertEquals(4, warm.weightedSize());
+            assertEquals(2, warm.stats().getEvictionCount());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLiveViews() {
+        Set<Integer> keys = map.keySet();
+        List<String> values = map.values();
+        map.put(5, "F");
+        assertEquals(6, keys.size());
+        assertEquals(true, keys.contains(5));
+        assertEquals("F", values.get(5));
+
+        Iterator<Integer> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(3, map.size());
+        assertEquals(false, map.containsKey(4));
+        assertEquals(Arrays.asList("B", "D", "F"), values);
+
+        StringBuilder pairs = new StringBuilder();
+        map.forEach((key, value) -> pairs.append(key).append(value));
+        assertEquals("1B3D5F", pairs.toString());
+        for (MapEntry<Integer, String> entry : map.entrySet()) {
+            entry.setValue(entry.getValue().toLowerCase());
+        }
+        assertEquals("d", map.get(3));
+
+        for (int i = 10; i < 1000; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(993, keys.parallelStream().count());
+        assertEquals(993, map.entrySet().stream().map(MapEntry::getKey).distinct().count());
+
+        Iterator<String> stale = values.iterator();
+        stale.next();
+        map.put(-1, "new");
+        boolean failedFast = false;
+        try {
+            stale.next();
+        } catch (ConcurrentModificationException e) {
+            failedFast = true;
+        }
+        assertEquals(true, failedFast);
+    }
+
+    @Test(timeout = 2000)
+    public void testMappedHashIndex() throws IOException {
+        Path file = Files.createTempFile("index", ".bin");
+        Path pairs = Files.createTempFile("pairs", ".bin");
+        Path loaded = Files.createTempFile("loaded", ".bin");
+        Files.delete(file);
+        try {
+            MappedHashIndex index = MappedHashIndex.open(file);
+            for (long key = -1000; key < 1000; key++) {
+                assertEquals(0L, index.put(key << 32, key));
+            }
+            assertEquals(4096, index.capacity());
+            assertEquals(5L, index.remove(5L << 32));
+            assertEquals(-7L, index.put(-7L << 32, 70));
+            index.close();
+
+            // reopening maps the file again, nothing is reloaded
+            index = MappedHashIndex.open(file);
+            assertEquals(1999, index.size());
+            assertEquals(70L, index.get(-7L << 32));
+            assertEquals(0L, index.get(0));
+            assertEquals(false, index.containsKey(5L << 32));
+            index.close();
+
+            // the removed entry's value is cleared with its key, so an
+            // insert torn by a crash can't surface it under another key
+            ByteBuffer raw = ByteBuffer.wrap(Files.readAllBytes(file));
+            int tombstones = 0;
+            // the table starts after the 128 byte header
+            for (int position = 128; position < raw.capacity(); position += 16) {
+                if (raw.getLong(position) == Long.MIN_VALUE) {
+                    tombstones++;
+                    assertEquals(0L, raw.getLong(position + 8));
+                }
+            }
+            assertEquals(1, tombstones);
+
+            ByteBuffer sorted = ByteBuffer.allocate(4 * 16);
+            sorted.putLong(1).putLong(10).putLong(2).putLong(20).putLong(2).putLong(21).putLong(3).putLong(30);
+            Files.write(pairs, sorted.array());
+            MappedHashIndex bulk = MappedHashIndex.bulkLoad(pairs, loaded);
+            assertEquals(3, bulk.size());
+            assertEquals(21L, bulk.get(2));
+            bulk.close();
+
+            // a sparse file claiming more pairs than MAX_CAPACITY slots hold
+            try (java.io.RandomAccessFile tooMany = new java.io.RandomAccessFile(pairs.toFile(), "rw")) {
+                tooMany.setLength(16L * MappedHashIndex.MAX_CAPACITY);
+            }
+            boolean thrown = false;
+            try {
+                MappedHashIndex.bulkLoad(pairs, loaded);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assertEquals(true, thrown);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(pairs);
+            Files.delete(loaded);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCompactHashSet() {
+        CompactHashSet<Integer> set = new CompactHashSet<>();
+        // multiples of 11 all start probing at slot 0
+        for (int i = 0; i < 7; i++) {
+            assertEquals(true, set.add(i * 11));
+        }
+        assertEquals(11, set.getTable().length);
+        assertEquals(false, set.add(22));
+        assertEquals((Integer) 11, set.remove(11));
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i != 1, set.contains(i * 11));
+        }
+        boolean thrown = false;
+        try {
+            set.remove(11);
+        } catch (java.util.NoSuchElementException e) {
+            thrown = true;
+        }
+        assertEquals(true, thrown);
+
+        assertEquals(2, set.addAll(List.of(0, 1, 2)));
+        thrown = false;
+        try {
+            set.addAll(Arrays.asList(5, null));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertEquals(true, thrown);
+        assertEquals(false, set.contains(5));
+        assertEquals(8, set.size());
+        assertEquals(23, set.getTable().length);
+
+        CompactHashSet<Integer> other = new CompactHashSet<>();
+        other.addAll(Arrays.asList(2, 3, 22, 44));
+        CompactHashSet<Integer> union = set.union(other);
+        CompactHashSet<Integer> intersection = other.intersection(set);
+        assertEquals(9, union.size());
+        assertEquals(true, union.contains(3));
+        assertEquals(8, set.size());
+        assertEquals(3, intersection.size());
+        assertEquals(11, intersection.getTable().length);
+        Set<Integer> found = new HashSet<>();
+        for (Integer key : intersection) {
+            found.add(key);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(2, 22, 44)), found);
+    }
+
+    // starting the platform MBean server can take longer than TIMEOUT
+    @Test(timeout = 2000)
+    public void testInstrumentedHashMap() throws javax.management.JMException {
+        InstrumentedHashMap<Integer, String> instrumented = new InstrumentedHashMap<>();
+        // multiples of 11 all hash to bucket 0 of the initial table
+        for (int i = 0; i < 7; i++) {
+            instrumented.put(i * 11, "v" + i);
+        }
+        assertEquals(7, instrumented.getLookups());
+        // the i-th put walks the i entries already in the chain
+        assertEquals(3.0, instrumented.getAverageProbesPerLookup(), 1e-9);
+        assertEquals(6, instrumented.getMaxProbesPerLookup());
+        assertEquals(0, instrumented.getResizeCount());
+        assertEquals(7.0 / 11, instrumented.getLoadFactor(), 1e-9);
+        int[] histogram = instrumented.getChainLengthHistogram();
+        assertEquals(10, histogram[0]);
+        assertEquals(1, histogram[7]);
+
+        instrumented.put(77, "v7");
+        assertEquals(1, instrumented.getResizeCount());
+        assertEquals(23, instrumented.getCapacity());
+        assertEquals(true, instrumented.getResizeNanos() >= instrumented.getMaxResizeNanos());
+        instrumented.reset();
+        assertEquals("v0", instrumented.get(0));
+        assertEquals(1, instrumented.getLookups());
+
+        javax.management.ObjectName name = instrumented.register("test");
+        javax.management.MBeanServer server = java.lang.management.ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(8, server.getAttribute(name, "Size"));
+            assertEquals(1L, server.getAttribute(name, "Lookups"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, instrumented.getLookups());
+            assertEquals(0.0, instrumented.getAverageProbesPerLookup(), 1e-9);
+            // the owner applies the reset as a whole before counting again
+            instrumented.containsKey(11);
+            assertEquals(1, instrumented.getLookups());
+            assertEquals(instrumented.getMaxProbesPerLookup(), instrumented.getAverageProbesPerLookup(), 1e-9);
+            assertEquals(0, instrumented.getResizeCount());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCuckooHashMap() {
+        CuckooHashMap<Integer, String> cuckoo = new CuckooHashMap<>(CuckooHashMap.INITIAL_CAPACITY, 1332);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(null, cuckoo.put(i, "v" + i));
+        }
+        assertEquals(100, cuckoo.size());
+        assertEquals(true, cuckoo.size() <= CuckooHashMap.MAX_LOAD_FACTOR * cuckoo.capacity());
+        assertEquals("v42", cuckoo.put(42, "w42"));
+        assertEquals("w42", cuckoo.get(42));
+        assertEquals("v7", cuckoo.remove(7));
+        assertEquals(false, cuckoo.containsKey(7));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i != 7, cuckoo.containsKey(i));
+        }
+
+        // "Aa", "BB" and "C#" share a hashCode, so these 27 strings do too
+        List<String> colliding = new ArrayList<>();
+        for (String a : Arrays.asList("Aa", "BB", "C#")) {
+            for (String b : Arrays.asList("Aa", "BB", "C#")) {
+                for (String c : Arrays.asList("Aa", "BB", "C#")) {
+                    colliding.add(a + b + c);
+                }
+            }
+        }
+        CuckooHashMap<String, Integer> strings = new CuckooHashMap<>(CuckooHashMap.INITIAL_CAPACITY, 1332);
+        // two buckets hold 8 keys, reseeding until the buckets differ
+        for (int i = 0; i < 2 * CuckooHashMap.SLOTS_PER_BUCKET; i++) {
+            strings.put(colliding.get(i), i);
+        }
+        boolean thrown = false;
+        try {
+            strings.put(colliding.get(8), 8);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertEquals(true, thrown);
+        assertEquals(8, strings.size());
+        assertEquals(false, strings.containsKey(colliding.get(8)));
+        for (int i = 0; i < 8; i++) {
+            assertEquals((Integer) i, strings.get(colliding.get(i)));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,335 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An external chaining hash map that grows a little at a time instead of
+ * rehashing every entry at once.
+ *
+ * When a put would exceed MAX_LOAD_FACTOR, a table of twice the length is
+ * allocated but the entries stay where they are. From then on every put,
+ * get, remove and containsKey first moves the chains of the next
+ * MIGRATION_STEP buckets from the old table into the new one. Until the old
+ * table is empty both tables are searched: buckets of the old table below
+ * the migration cursor are already empty, so a key is in the new table or
+ * in its old table bucket. No single operation does more than a constant
+ * amount of rehashing, so growing a map of 50M entries no longer stalls
+ * the put that crosses the threshold.
+ *
+ * Entries are relinked from chain to chain, never copied. Tables are
+ * powers of two indexed by masking a spread hash.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class IncrementalHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final int MIGRATION_STEP = 4;
+
+    private MapEntry<K, V>[] table;
+    // table being drained into table, null when no resize is in progress
+    private MapEntry<K, V>[] oldTable;
+    // buckets of oldTable below this index have been migrated
+    private int migrated;
+    private int size;
+
+    /**
+     * Creates an empty map with INITIAL_CAPACITY buckets.
+     */
+    public IncrementalHashMap() {
+        table = new MapEntry[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Spreads the hash code of a key so the masked low bits depend on all
+     * of its bits.
+     *
+     * @param key the key to hash
+     * @return the spread hash
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Moves up to MIGRATION_STEP buckets of the old table into the new one,
+     * finishing the resize once the old table is empty.
+     */
+    private void migrate() {
+        if (oldTable == null) {
+            return;
+        }
+        int end = Math.min(migrated + MIGRATION_STEP, oldTable.length);
+        int mask = table.length - 1;
+        for (; migrated < end; migrated++) {
+            MapEntry<K, V> curr = oldTable[migrated];
+            oldTable[migrated] = null;
+            while (curr != null) {
+                MapEntry<K, V> next = curr.getNext();
+                int bucket = hash(curr.getKey()) & mask;
+                curr.setNext(table[bucket]);
+                table[bucket] = curr;
+                curr = next;
+            }
+        }
+        if (migrated == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Starts a resize to twice the current length. Any resize still in
+     * progress is finished first.
+     */
+    private void startResize() {
+        while (oldTable != null) {
+            migrate();
+        }
+        oldTable = table;
+        table = new MapEntry[2 * table.length];
+        migrated = 0;
+    }
+
+    /**
+     * Returns the entry for key in the given table.
+     *
+     * @param tab the table to search
+     * @param hash the spread hash of key
+     * @param key the key to search for
+     * @return the entry holding key, null if it is not in tab
+     */
+    private MapEntry<K, V> getEntry(MapEntry<K, V>[] tab, int hash, K key) {
+        for (MapEntry<K, V> curr = tab[hash & (tab.length - 1)]; curr != null; curr = curr.getNext()) {
+            if (curr.getKey().equals(key)) {
+                return curr;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the entry for key in either table.
+     *
+     * @param key the key to search for
+     * @return the entry holding key, null if it is not in the map
+     */
+    private MapEntry<K, V> find(K key) {
+        int hash = hash(key);
+        MapEntry<K, V> entry = getEntry(table, hash, key);
+        if (entry == null && oldTable != null) {
+            entry = getEntry(oldTable, hash, key);
+        }
+        return entry;
+    }
+
+    /**
+     * Adds the given key-value pair to the map, or replaces the value if the
+     * key is already in the map. New entries go to the front of their chain
+     * in the current table.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to insert null key into IncrementalHashMap");
+        } else if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into IncrementalHashMap");
+        }
+        migrate();
+        MapEntry<K, V> entry = find(key);
+        if (entry != null) {
+            V prev = entry.getValue();
+            entry.setValue(value);
+            return prev;
+        }
+        if (size + 1 > MAX_LOAD_FACTOR * table.length) {
+            startResize();
+            migrate();
+        }
+        int bucket = hash(key) & (table.length - 1);
+        table[bucket] = new MapEntry<>(key, value, table[bucket]);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from IncrementalHashMap");
+        }
+        migrate();
+        int hash = hash(key);
+        V removed = removeEntry(table, hash, key);
+        if (removed == null && oldTable != null) {
+            removed = removeEntry(oldTable, hash, key);
+        }
+        if (removed == null) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in IncrementalHashMap");
+        }
+        size--;
+        return removed;
+    }
+
+    /**
+     * Unlinks the entry for key from the given table.
+     *
+     * @param tab the table to remove from
+     * @param hash the spread hash of key
+     * @param key the key to remove
+     * @return the value of the removed entry, null if key is not in tab
+     */
+    private V removeEntry(MapEntry<K, V>[] tab, int hash, K key) {
+        int bucket = hash & (tab.length - 1);
+        MapEntry<K, V> prev = null;
+        for (MapEntry<K, V> curr = tab[bucket]; curr != null; curr = curr.getNext()) {
+            if (curr.getKey().equals(key)) {
+                if (prev == null) {
+                    tab[bucket] = curr.getNext();
+                } else {
+                    prev.setNext(curr.getNext());
+                }
+                return curr.getValue();
+            }
+            prev = curr;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        migrate();
+        MapEntry<K, V> entry = find(key);
+        if (entry == null) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the IncrementalHashMap");
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if IncrementalHashMap contains null key");
+        }
+        migrate();
+        return find(key) != null;
+    }
+
+    /**
+     * Returns a Set of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        for (MapEntry<K, V>[] tab : tables()) {
+            for (MapEntry<K, V> head : tab) {
+                for (MapEntry<K, V> curr = head; curr != null; curr = curr.getNext()) {
+                    keys.add(curr.getKey());
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a List of the values contained in this map, the current table
+     * first, then whatever is left in the old table.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        for (MapEntry<K, V>[] tab : tables()) {
+            for (MapEntry<K, V> head : tab) {
+                for (MapEntry<K, V> curr = head; curr != null; curr = curr.getNext()) {
+                    values.add(curr.getValue());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the tables that currently hold entries.
+     *
+     * @return the current table, followed by the old table during a resize
+     */
+    private List<MapEntry<K, V>[]> tables() {
+        List<MapEntry<K, V>[]> res = new ArrayList<>(2);
+        res.add(table);
+        if (oldTable != null) {
+            res.add(oldTable);
+        }
+        return res;
+    }
+
+    /**
+     * Clears the map and resets it to INITIAL_CAPACITY buckets.
+     */
+    public void clear() {
+        table = new MapEntry[INITIAL_CAPACITY];
+        oldTable = null;
+        migrated = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns whether a resize is still in progress.
+     *
+     * @return true if entries remain in the old table, false otherwise
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the current backing table. During a resize some entries are
+     * still in the old table.
+     *
+     * @return the current backing table
+     */
+    public MapEntry<K, V>[] getTable() {
+        return table;
+    }
+}
\ No newline at end of file
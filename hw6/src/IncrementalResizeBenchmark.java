@@ -0,0 +1,111 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the put latency distribution of IncrementalHashMap with the
+ * chained HashMap while both grow through many doublings.
+ *
+ * Each map is filled from empty with the same random keys, and each put is
+ * timed on its own with System.nanoTime, so the puts that cross the load
+ * factor show up in the tail. HashMap rehashes every entry on those puts;
+ * IncrementalHashMap only allocates the new table and moves a few buckets.
+ * Those puts are only a few in a million, so besides the percentiles the
+ * benchmark counts the puts slower than a millisecond.
+ * The first WARMUP_ROUNDS fills of each map let the JIT compile both and
+ * are not reported. nanoTime adds a few tens of nanoseconds to every
+ * timing, and GC pauses land in the tail of both maps. Run it with
+ *
+ *     java IncrementalResizeBenchmark [entries] [seed]
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class IncrementalResizeBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Runs the benchmark and prints one line of percentiles per map.
+     *
+     * @param args optional number of entries and random seed
+     */
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1332;
+
+        Random random = new Random(seed);
+        Integer[] keys = new Integer[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        long[] chainedTimes = new long[entries];
+        long[] incrementalTimes = new long[entries];
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            timeChained(keys, chainedTimes);
+            timeIncremental(keys, incrementalTimes);
+        }
+        System.out.printf("%d timed puts from empty, seed %d%n", entries, seed);
+        print("HashMap", chainedTimes);
+        print("IncrementalHashMap", incrementalTimes);
+    }
+
+    /**
+     * Fills an empty chained map, timing each put.
+     *
+     * @param keys the keys to put, in order
+     * @param times where to store the time of each put, in nanoseconds
+     */
+    private static void timeChained(Integer[] keys, long[] times) {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            map.put(keys[i], i);
+            times[i] = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Fills an empty incremental map, timing each put.
+     *
+     * @param keys the keys to put, in order
+     * @param times where to store the time of each put, in nanoseconds
+     */
+    private static void timeIncremental(Integer[] keys, long[] times) {
+        IncrementalHashMap<Integer, Integer> map = new IncrementalHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            map.put(keys[i], i);
+            times[i] = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Prints the median, p99, p99.9, p99.99 and max of a set of timings,
+     * and how many took over a millisecond.
+     *
+     * @param name the name of the map
+     * @param times the timings in nanoseconds; sorted in place
+     */
+    private static void print(String name, long[] times) {
+        Arrays.sort(times);
+        int slow = 0;
+        for (int i = times.length - 1; i >= 0 && times[i] > 1_000_000; i--) {
+            slow++;
+        }
+        System.out.printf("%-18s p50 %5d ns  p99 %5d ns  p99.9 %6d ns  p99.99 %8d ns  max %10d ns  %d over 1 ms%n",
+                name, percentile(times, 0.5), percentile(times, 0.99), percentile(times, 0.999),
+                percentile(times, 0.9999), times[times.length - 1], slow);
+    }
+
+    /**
+     * Returns a percentile of sorted timings.
+     *
+     * @param sorted the timings, in ascending order
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the timing at that percentile
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) (fraction * sorted.length))];
+    }
+}
\ No newline at end of file
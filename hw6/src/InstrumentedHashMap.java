@@ -0,0 +1,213 @@
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A HashMap that keeps statistics about its own lookups and resizes, for
+ * telling a map with bad hashCodes (long chains at a normal load factor)
+ * from one that is simply full or resizing too often.
+ *
+ * The metrics are opt in: a plain HashMap pays only for an empty probed
+ * call, and only maps created as InstrumentedHashMap count anything. Every
+ * metric is also a read-only JMX attribute once the map is registered with
+ * register.
+ *
+ * The map itself is no more thread safe than HashMap: one thread at a time
+ * uses it, and that thread is the only one writing the counters, so they
+ * are plain fields. Volatile counters would put a fence on every get and
+ * put. Instead the owner publishes the counters to JMX threads with a
+ * single volatile write every PUBLISH_INTERVAL lookups and after every
+ * resize. JMX threads see at least the last published values, and a read
+ * that races the owner may mix values from before and after a lookup.
+ *
+ * reset is called from JMX threads too, so it does not write the counters.
+ * It only records a request. The owner zeroes every counter together on
+ * its next lookup or resize, so a reset is never lost or half applied, and
+ * the getters report zeroed counters until then.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class InstrumentedHashMap<K, V> extends HashMap<K, V> implements InstrumentedHashMapMBean {
+
+    public static final String DOMAIN = "hw6";
+    // a power of two, so the check is a mask
+    public static final int PUBLISH_INTERVAL = 1024;
+
+    // written only by the owner
+    private long lookups;
+    private long probes;
+    private int maxProbes;
+    private long resizes;
+    private long resizeNanos;
+    private long maxResizeNanos;
+    private long resetsApplied;
+    // resetsApplied as of the last publish; the owner writes it after the
+    // counters it publishes, and readers read it before them
+    private volatile long publishedResets;
+    // written only by reset, which JMX threads may call at the same time
+    private volatile long resetsRequested;
+
+    /**
+     * Creates an instrumented hash map with INITIAL_CAPACITY buckets.
+     */
+    public InstrumentedHashMap() {
+        super();
+    }
+
+    /**
+     * Creates an instrumented hash map.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     */
+    public InstrumentedHashMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * Counts a lookup and the number of entries it walked.
+     *
+     * @param probes the number of entries the lookup looked at
+     */
+    @Override
+    protected void probed(int probes) {
+        applyReset();
+        lookups++;
+        this.probes += probes;
+        if (probes > maxProbes) {
+            maxProbes = probes;
+        }
+        if ((lookups & (PUBLISH_INTERVAL - 1)) == 0) {
+            publishedResets = resetsApplied;
+        }
+    }
+
+    /**
+     * Resizes the backing table as HashMap does and records how long it
+     * took. Resizes triggered by put are counted too, since put calls this
+     * method.
+     *
+     * @param length new length of the backing table
+     * @throws IllegalArgumentException if length is non-positive or less than
+     * the number of items in the hash map.
+     */
+    @Override
+    public void resizeBackingTable(int length) {
+        long start = System.nanoTime();
+        super.resizeBackingTable(length);
+        long elapsed = System.nanoTime() - start;
+        applyReset();
+        resizes++;
+        resizeNanos += elapsed;
+        if (elapsed > maxResizeNanos) {
+            maxResizeNanos = elapsed;
+        }
+        publishedResets = resetsApplied;
+    }
+
+    /**
+     * Zeroes every counter if reset was called since the owner last
+     * checked, and publishes the zeroes.
+     */
+    private void applyReset() {
+        long requested = resetsRequested;
+        if (requested != resetsApplied) {
+            lookups = 0;
+            probes = 0;
+            maxProbes = 0;
+            resizes = 0;
+            resizeNanos = 0;
+            maxResizeNanos = 0;
+            resetsApplied = requested;
+            publishedResets = resetsApplied;
+        }
+    }
+
+    /**
+     * Returns whether or not reset was called and the owner has not yet
+     * applied it. Every getter calls this before reading a counter, and the
+     * volatile read makes every published counter visible to its thread.
+     *
+     * @return true if the counters should read as zero
+     */
+    private boolean resetPending() {
+        return resetsRequested != publishedResets;
+    }
+
+    /**
+     * Registers this map with the platform MBean server under
+     * hw6:type=InstrumentedHashMap,name=name.
+     *
+     * @param name the name to register the map under
+     * @throws IllegalArgumentException if name is null
+     * @throws JMException if the name is taken or cannot be registered
+     * @return the name the map was registered under
+     */
+    public ObjectName register(String name) throws JMException {
+        if (name == null) {
+            throw new IllegalArgumentException("Attempting to register InstrumentedHashMap under null name");
+        }
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=InstrumentedHashMap,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getLookups() {
+        return resetPending() ? 0 : lookups;
+    }
+
+    @Override
+    public double getAverageProbesPerLookup() {
+        if (resetPending()) {
+            return 0;
+        }
+        long count = lookups;
+        return count == 0 ? 0 : (double) probes / count;
+    }
+
+    @Override
+    public int getMaxProbesPerLookup() {
+        return resetPending() ? 0 : maxProbes;
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resetPending() ? 0 : resizes;
+    }
+
+    @Override
+    public long getResizeNanos() {
+        return resetPending() ? 0 : resizeNanos;
+    }
+
+    @Override
+    public long getMaxResizeNanos() {
+        return resetPending() ? 0 : maxResizeNanos;
+    }
+
+    @Override
+    public double getLoadFactor() {
+        return (double) size() / getTable().length;
+    }
+
+    @Override
+    public int[] getChainLengthHistogram() {
+        return chainLengthHistogram();
+    }
+
+    @Override
+    public int getSize() {
+        return size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return getTable().length;
+    }
+
+    @Override
+    public synchronized void reset() {
+        resetsRequested++;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+import java.util.Random;
+
+/**
+ * Measures what the metrics of InstrumentedHashMap cost, by timing the same
+ * puts and gets on a plain HashMap or on an InstrumentedHashMap.
+ *
+ * Each round fills a fresh map with random keys, resizes included, and
+ * then gets random keys from it. The phases are timed as a whole, since
+ * the difference is a few nanoseconds per call and timing each call would
+ * hide it. The first WARMUP_ROUNDS rounds are not reported.
+ *
+ * Only one kind of map is used per run. Once InstrumentedHashMap is loaded
+ * the JIT can no longer drop HashMap's empty probed hook, which slows the
+ * plain map too, so running both in one JVM measures neither. Compare two
+ * runs with the same arguments:
+ *
+ *     java InstrumentedHashMapBenchmark plain [entries] [lookups] [rounds] [seed]
+ *     java InstrumentedHashMapBenchmark instrumented [entries] [lookups] [rounds] [seed]
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class InstrumentedHashMapBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark and prints the time per put and get.
+     *
+     * @param args plain or instrumented, then optional number of entries,
+     * number of lookups per round, number of timed rounds and random seed
+     */
+    public static void main(String[] args) {
+        boolean instrumented = args.length > 0 && args[0].equals("instrumented");
+        int entries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 5_000_000;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1332;
+
+        Random random = new Random(seed);
+        Integer[] keys = new Integer[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = random.nextInt();
+        }
+        Integer[] probes = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            probes[i] = keys[random.nextInt(entries)];
+        }
+
+        long[] nanos = new long[2];
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                nanos[0] = 0;
+                nanos[1] = 0;
+            }
+            time(instrumented ? new InstrumentedHashMap<>() : new HashMap<>(), keys, probes, nanos);
+        }
+        System.out.printf("%s, %d entries, %d gets, %d timed rounds, seed %d%n",
+                instrumented ? "InstrumentedHashMap" : "HashMap", entries, lookups, rounds, seed);
+        System.out.printf("put %6.1f ns/op  get %6.1f ns/op%n",
+                (double) nanos[0] / ((long) rounds * entries), (double) nanos[1] / ((long) rounds * lookups));
+    }
+
+    /**
+     * Fills map with keys and then gets each probe from it, adding the time
+     * of the two phases to nanos.
+     *
+     * @param map an empty map
+     * @param keys the keys to put, in order
+     * @param probes the keys to get, in order
+     * @param nanos where to add the put time, at index 0, and the get time,
+     * at index 1, in nanoseconds
+     */
+    private static void time(HashMap<Integer, Integer> map, Integer[] keys, Integer[] probes, long[] nanos) {
+        long start = System.nanoTime();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        long filled = System.nanoTime();
+        long sink = 0;
+        for (Integer probe : probes) {
+            sink += map.get(probe);
+        }
+        long done = System.nanoTime();
+        nanos[0] += filled - start;
+        nanos[1] += done - filled;
+        consume(sink);
+    }
+
+    /**
+     * Keeps the JIT from dropping the gets as dead code.
+     *
+     * @param sink the sum of the values read
+     */
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+/**
+ * The JMX management interface of InstrumentedHashMap. Each getter is a
+ * read-only attribute and reset is an operation.
+ *
+ * JMX reads attributes from its own threads while the map's owner keeps
+ * using it. The counters may trail the owner by up to
+ * InstrumentedHashMap.PUBLISH_INTERVAL lookups, and two attributes read one
+ * after the other may straddle an operation.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public interface InstrumentedHashMapMBean {
+
+    /**
+     * Returns the number of lookups (put, get and containsKey calls) since
+     * the last reset.
+     *
+     * @return the number of lookups
+     */
+    long getLookups();
+
+    /**
+     * Returns the average number of entries a lookup compared keys against.
+     * A hit stops at its entry and a miss walks the whole chain, so this is
+     * not the average chain length.
+     *
+     * @return the average probes per lookup, 0 if there were no lookups
+     */
+    double getAverageProbesPerLookup();
+
+    /**
+     * Returns the most entries a single lookup compared keys against.
+     *
+     * @return the most probes any lookup made
+     */
+    int getMaxProbesPerLookup();
+
+    /**
+     * Returns the number of times the backing table was resized.
+     *
+     * @return the number of resizes
+     */
+    long getResizeCount();
+
+    /**
+     * Returns the total time spent resizing the backing table.
+     *
+     * @return total resize time in nanoseconds
+     */
+    long getResizeNanos();
+
+    /**
+     * Returns the time the slowest resize took.
+     *
+     * @return the longest resize time in nanoseconds
+     */
+    long getMaxResizeNanos();
+
+    /**
+     * Returns the current number of entries divided by the table length.
+     *
+     * @return the current load factor
+     */
+    double getLoadFactor();
+
+    /**
+     * Returns how many buckets hold each number of entries. The table is
+     * walked without stopping the map's owner, so if the map changes during
+     * the walk the histogram is only approximate.
+     *
+     * @return an array whose element i is the number of buckets holding i
+     * entries
+     */
+    int[] getChainLengthHistogram();
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    int getSize();
+
+    /**
+     * Returns the length of the backing table.
+     *
+     * @return the length of the backing table
+     */
+    int getCapacity();
+
+    /**
+     * Zeroes the lookup and resize counters. The map's owner applies the
+     * reset on its next lookup or resize, so it is never lost or only
+     * partly applied, and the counters read as zero until then. The load
+     * factor and histogram describe the table as it is, so they are not
+     * affected.
+     */
+    void reset();
+}
\ No newline at end of file
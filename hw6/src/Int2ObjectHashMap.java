@@ -0,0 +1,298 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An open addressing hash map from int keys to object values.
+ *
+ * Keys live in a flat int array and values in a parallel array, so keys
+ * are never boxed, no entry objects are created and get allocates nothing.
+ * Collisions are resolved by linear probing and removal shifts the rest of
+ * the cluster back instead of leaving tombstones.
+ *
+ * A slot holding key 0 counts as empty, so the real key 0 is kept outside
+ * the arrays. Every int is therefore a valid key and there is no sentinel
+ * key callers have to avoid.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class Int2ObjectHashMap<V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    private int[] keys;
+    private V[] values;
+    private int mask;
+    // number of entries in the arrays, not counting key 0
+    private int used;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /**
+     * Creates an empty map with INITIAL_CAPACITY slots.
+     */
+    public Int2ObjectHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param initialCapacity minimum number of slots, rounded up to a power
+     * of two
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public Int2ObjectHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Attempting to create Int2ObjectHashMap with non-positive capacity");
+        }
+        allocate(initialCapacity <= 1 ? 1 : Integer.highestOneBit(initialCapacity - 1) << 1);
+    }
+
+    /**
+     * Replaces the arrays with empty arrays of the given length.
+     *
+     * @param length the new table length, a power of two
+     */
+    private void allocate(int length) {
+        keys = new int[length];
+        values = (V[]) new Object[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Returns the home slot of a nonzero key.
+     *
+     * @param key the key to hash
+     * @return the slot the probe sequence for key starts at
+     */
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding a nonzero key, or the empty slot that ends
+     * its probe sequence.
+     *
+     * @param key the key to search for
+     * @return the slot of key, or of the first empty slot after it
+     */
+    private int find(int key) {
+        int slot = slot(key);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Adds the given key-value pair to the map, or replaces the value if the
+     * key is already in the map.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into Int2ObjectHashMap");
+        }
+        if (key == 0) {
+            V prev = hasZeroKey ? zeroValue : null;
+            hasZeroKey = true;
+            zeroValue = value;
+            return prev;
+        }
+        int slot = find(key);
+        if (keys[slot] == key) {
+            V prev = values[slot];
+            values[slot] = value;
+            return prev;
+        }
+        if (used + 1 > MAX_LOAD_FACTOR * keys.length) {
+            resizeBackingTable(2 * keys.length);
+            slot = find(key);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used++;
+        return null;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(int key) {
+        V value = getOrDefault(key, null);
+        if (value == null) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the Int2ObjectHashMap");
+        }
+        return value;
+    }
+
+    /**
+     * Gets the value associated with the given key without throwing.
+     *
+     * @param key the key to search for
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the value associated with key, defaultValue if there is none
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return keys[slot] == 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : keys[find(key)] != 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map. The entries after
+     * it in the same cluster that are allowed to move are shifted back into
+     * the gap.
+     *
+     * @param key the key to remove
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new NoSuchElementException("Cannot remove: provided key is not present in Int2ObjectHashMap");
+            }
+            V removed = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return removed;
+        }
+        int gap = find(key);
+        if (keys[gap] == 0) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in Int2ObjectHashMap");
+        }
+        V removed = values[gap];
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            // an entry can fill the gap only if its home slot is not
+            // between the gap and where it is now
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        used--;
+        return removed;
+    }
+
+    /**
+     * Resizes the table to the given length and reinserts every entry.
+     *
+     * @param length new length of the table, rounded up to a power of two
+     * @throws IllegalArgumentException if length is non-positive or not more
+     * than the number of entries in the table
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Attempting to resize backing table to non-positive length");
+        }
+        if (length <= used) {
+            String message = String.format("Attempting to resize backing table of size %d to length %d", used, length);
+            throw new IllegalArgumentException(message);
+        }
+        int[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(length <= 1 ? 1 : Integer.highestOneBit(length - 1) << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the keys in the map, in slot order with key 0 last.
+     *
+     * @return a new array of the keys in the map
+     */
+    public int[] keys() {
+        int[] res = new int[size()];
+        int i = 0;
+        for (int key : keys) {
+            if (key != 0) {
+                res[i++] = key;
+            }
+        }
+        if (hasZeroKey) {
+            res[i] = 0;
+        }
+        return res;
+    }
+
+    /**
+     * Returns a List of the values in the map, in the same order as keys.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        List<V> res = new ArrayList<>(size());
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                res.add(values[slot]);
+            }
+        }
+        if (hasZeroKey) {
+            res.add(zeroValue);
+        }
+        return res;
+    }
+
+    /**
+     * Clears the map and resets it to INITIAL_CAPACITY slots.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        used = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return hasZeroKey ? used + 1 : used;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the length of the table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+}
\ No newline at end of file
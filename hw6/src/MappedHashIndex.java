@@ -0,0 +1,658 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash map from long keys to long values that lives in a memory-mapped
+ * file instead of on the heap.
+ *
+ * The file is a header followed by a power-of-two table of 16 byte slots,
+ * each a key and a value, searched by linear probing. Nothing is kept on
+ * the heap per entry, so the garbage collector never sees the entries, and
+ * opening an existing file only maps it: there is nothing to load or
+ * rebuild. The file is mapped in 1 GiB chunks so the table can grow past
+ * the 2 GiB limit of a single mapping.
+ *
+ * Two key values mark free slots: 0 for empty and Long.MIN_VALUE for a
+ * removed entry (a tombstone). Those two keys are stored in the header, so
+ * every long is still a valid key.
+ *
+ * Crash safety: every put and remove changes one slot, plus the counts in
+ * the header. Before the first change after opening or syncing, the header
+ * is marked dirty and that mark is forced to disk; sync forces every change
+ * and then marks the file clean. If the process or machine dies, opening
+ * the file again finds the dirty mark and rebuilds the table from its
+ * slots. Every change made before the last sync survives.
+ *
+ * Later changes are not all-or-nothing. A slot's key and value are two
+ * writes to a mapped page, and nothing orders when each reaches the disk,
+ * so after a crash a key put or removed since the last sync may come back
+ * with the value its slot held before, usually 0, instead of its own.
+ * remove clears the value along with the key, so once a remove has been
+ * synced, a key that later reuses the slot can't come back with the
+ * removed key's value. Call sync after changes that must not be torn.
+ *
+ * Growing the table writes a complete new file next to the old one and
+ * renames it into place, so a crash during a resize leaves the old file
+ * untouched.
+ *
+ * The table holds at most MAX_CAPACITY slots. A put or bulk load that would
+ * need more fails instead of growing past it.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class MappedHashIndex implements Closeable {
+
+    public static final int INITIAL_CAPACITY = 1024;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    // slot indices are ints, so the table stops at 2^30 slots (16 GiB),
+    // about 719 million entries at the max load factor
+    public static final int MAX_CAPACITY = 1 << 30;
+
+    private static final long MAGIC = 0x4857364D48494458L;
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = Long.MIN_VALUE;
+    private static final int SLOT_SIZE = 16;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    // header layout; each special entry is a value followed by a present
+    // flag in the same 16 byte block, so both land on disk together
+    private static final int HEADER_SIZE = 128;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int TOMBSTONES_OFFSET = 24;
+    private static final int CLEAN_OFFSET = 32;
+    private static final int EMPTY_KEY_OFFSET = 64;
+    private static final int TOMBSTONE_KEY_OFFSET = 80;
+
+    private final Path path;
+    private MappedByteBuffer[] chunks;
+    private int capacity;
+    private int mask;
+    private int size;
+    private int tombstones;
+    private boolean dirty;
+    private boolean closed;
+
+    /**
+     * Wraps an already mapped, consistent index file.
+     *
+     * @param path the index file
+     * @param chunks the mapped chunks of the file
+     */
+    private MappedHashIndex(Path path, MappedByteBuffer[] chunks) {
+        this.path = path;
+        attach(chunks);
+    }
+
+    /**
+     * Opens the index stored at path, creating an empty one if the file
+     * does not exist. An index that was not synced before the last process
+     * exited is rebuilt.
+     *
+     * @param path the index file
+     * @throws IllegalArgumentException if path is null or is not an index
+     * @throws IOException if the file can't be read or written
+     * @return the opened index
+     */
+    public static MappedHashIndex open(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Attempting to open MappedHashIndex at null path");
+        }
+        if (!Files.exists(path)) {
+            writeFile(path, INITIAL_CAPACITY, null, false);
+        }
+        MappedHashIndex index = new MappedHashIndex(path, map(path));
+        if (index.chunks[0].getLong(CLEAN_OFFSET) == 0) {
+            index.rehash(capacityFor(index.countLive()), true);
+        }
+        return index;
+    }
+
+    /**
+     * Builds a new index at indexPath from a file of key-value pairs sorted
+     * by key, replacing anything already at indexPath.
+     *
+     * The pairs are big-endian longs, key then value, in ascending key
+     * order, so duplicate keys are adjacent and the last one wins. The
+     * table is sized for the whole file up front and filled in a single
+     * pass with no resizing and no duplicate checks, then synced once.
+     *
+     * @param sortedPairs the file of sorted pairs
+     * @param indexPath where to write the index
+     * @throws IllegalArgumentException if a path is null, the pair file
+     * length is not a multiple of 16, the keys are not sorted, or there are
+     * more pairs than MAX_CAPACITY slots hold within the max load factor
+     * @throws IOException if a file can't be read or written
+     * @return the loaded index
+     */
+    public static MappedHashIndex bulkLoad(Path sortedPairs, Path indexPath) throws IOException {
+        if (sortedPairs == null || indexPath == null) {
+            throw new IllegalArgumentException("Attempting to bulk load MappedHashIndex with null path");
+        }
+        long pairs = Files.size(sortedPairs) / SLOT_SIZE;
+        if (pairs * SLOT_SIZE != Files.size(sortedPairs)) {
+            throw new IllegalArgumentException("Attempting to bulk load MappedHashIndex from a file of partial pairs");
+        }
+        if (pairs > MAX_LOAD_FACTOR * MAX_CAPACITY) {
+            throw new IllegalArgumentException("Attempting to bulk load more pairs than MappedHashIndex can hold");
+        }
+        writeFile(indexPath, capacityFor(pairs), null, false);
+        MappedHashIndex index = new MappedHashIndex(indexPath, map(indexPath));
+        index.markDirty();
+        try (FileChannel in = FileChannel.open(sortedPairs, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            boolean pending = false;
+            long key = 0;
+            long value = 0;
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= SLOT_SIZE) {
+                    long nextKey = buffer.getLong();
+                    long nextValue = buffer.getLong();
+                    if (pending && nextKey < key) {
+                        throw new IllegalArgumentException("Attempting to bulk load MappedHashIndex from unsorted pairs");
+                    }
+                    if (pending && nextKey != key) {
+                        index.insertNew(key, value);
+                    }
+                    pending = true;
+                    key = nextKey;
+                    value = nextValue;
+                }
+                buffer.compact();
+            }
+            if (pending) {
+                index.insertNew(key, value);
+            }
+        }
+        index.writeCounts();
+        index.sync();
+        return index;
+    }
+
+    /**
+     * Maps every chunk of an index file.
+     *
+     * @param path the index file
+     * @throws IllegalArgumentException if the file is not an index
+     * @throws IOException if the file can't be mapped
+     * @return the mapped chunks
+     */
+    private static MappedByteBuffer[] map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(CHUNK_SIZE, length - start));
+            }
+            if (length < HEADER_SIZE || chunks[0].getLong(MAGIC_OFFSET) != MAGIC
+                    || length != HEADER_SIZE + chunks[0].getLong(CAPACITY_OFFSET) * SLOT_SIZE) {
+                throw new IllegalArgumentException("Attempting to open a file that is not a MappedHashIndex");
+            }
+            // the mapping stays valid after the channel is closed
+            return chunks;
+        }
+    }
+
+    /**
+     * Writes a new, clean index file holding the live entries of source,
+     * next to path, then renames it over path.
+     *
+     * @param path the index file to replace
+     * @param capacity the number of slots, a power of two
+     * @param source the index to copy, null for an empty index
+     * @param dedupe whether source may hold a key twice (after a crash), in
+     * which case only the copy a lookup would find is kept
+     * @throws IOException if the file can't be written
+     */
+    private static void writeFile(Path path, int capacity, MappedHashIndex source, boolean dedupe)
+            throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long length = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(1), length - 1);
+            ByteBuffer header = ByteBuffer.allocate(16);
+            header.putLong(MAGIC).putLong(capacity).flip();
+            channel.write(header, 0);
+        }
+        MappedHashIndex target = new MappedHashIndex(tmp, map(tmp));
+        if (source != null) {
+            for (int slot = 0; slot < source.capacity; slot++) {
+                long key = source.keyAt(slot);
+                if (key != EMPTY && key != TOMBSTONE && (!dedupe || source.find(key) == slot)) {
+                    target.insertNew(key, source.valueAt(slot));
+                }
+            }
+            for (int offset : new int[] {EMPTY_KEY_OFFSET, TOMBSTONE_KEY_OFFSET}) {
+                ByteBuffer from = source.chunks[0];
+                ByteBuffer to = target.chunks[0];
+                if (from.getLong(offset + 8) != 0) {
+                    to.putLong(offset, from.getLong(offset));
+                    to.putLong(offset + 8, 1);
+                    target.size++;
+                }
+            }
+        }
+        target.writeCounts();
+        target.chunks[0].putLong(CLEAN_OFFSET, 1);
+        for (MappedByteBuffer chunk : target.chunks) {
+            chunk.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(path);
+    }
+
+    /**
+     * Forces the directory holding path to disk so a rename into it
+     * survives a crash. Some platforms can't open directories, and there
+     * the rename is left to the file system.
+     *
+     * @param path a file in the directory
+     */
+    private static void forceDirectory(Path path) {
+        Path dir = path.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on this platform
+        }
+    }
+
+    /**
+     * Switches this index over to a freshly mapped file.
+     *
+     * @param newChunks the mapped chunks of the file
+     */
+    private void attach(MappedByteBuffer[] newChunks) {
+        chunks = newChunks;
+        capacity = (int) chunks[0].getLong(CAPACITY_OFFSET);
+        mask = capacity - 1;
+        size = (int) chunks[0].getLong(SIZE_OFFSET);
+        tombstones = (int) chunks[0].getLong(TOMBSTONES_OFFSET);
+        dirty = chunks[0].getLong(CLEAN_OFFSET) == 0;
+    }
+
+    /**
+     * Rewrites the whole file with the given capacity, dropping tombstones.
+     *
+     * @param newCapacity the number of slots, a power of two
+     * @param dedupe whether the table may hold a key twice
+     * @throws IOException if the file can't be written
+     */
+    private void rehash(int newCapacity, boolean dedupe) throws IOException {
+        writeFile(path, newCapacity, this, dedupe);
+        attach(map(path));
+    }
+
+    /**
+     * Counts the entries actually in the slots and header, for recovery
+     * when the stored counts can't be trusted.
+     *
+     * @return the number of occupied slots and special keys
+     */
+    private int countLive() {
+        int live = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long key = keyAt(slot);
+            if (key != EMPTY && key != TOMBSTONE) {
+                live++;
+            }
+        }
+        for (int offset : new int[] {EMPTY_KEY_OFFSET, TOMBSTONE_KEY_OFFSET}) {
+            if (chunks[0].getLong(offset + 8) != 0) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Returns the smallest capacity, at least INITIAL_CAPACITY, that holds
+     * entries within the max load factor.
+     *
+     * @param entries the number of entries
+     * @throws IllegalStateException if not even MAX_CAPACITY slots hold
+     * that many entries
+     * @return the capacity, a power of two
+     */
+    private static int capacityFor(long entries) {
+        if (entries > MAX_LOAD_FACTOR * MAX_CAPACITY) {
+            throw new IllegalStateException("Attempting to grow MappedHashIndex past its max capacity");
+        }
+        int res = INITIAL_CAPACITY;
+        while (entries > MAX_LOAD_FACTOR * res) {
+            res *= 2;
+        }
+        return res;
+    }
+
+    /**
+     * Returns the chunk holding a slot.
+     *
+     * @param slot the slot
+     * @return the chunk the slot is in
+     */
+    private MappedByteBuffer chunkOf(int slot) {
+        return chunks[(int) ((HEADER_SIZE + (long) slot * SLOT_SIZE) >>> CHUNK_SHIFT)];
+    }
+
+    /**
+     * Returns the position of a slot within its chunk.
+     *
+     * @param slot the slot
+     * @return the byte offset of the slot's key in its chunk
+     */
+    private static int positionOf(int slot) {
+        return (int) ((HEADER_SIZE + (long) slot * SLOT_SIZE) & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Reads the key stored in a slot.
+     *
+     * @param slot the slot
+     * @return the key, EMPTY or TOMBSTONE
+     */
+    private long keyAt(int slot) {
+        return chunkOf(slot).getLong(positionOf(slot));
+    }
+
+    /**
+     * Reads the value stored in a slot.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    private long valueAt(int slot) {
+        return chunkOf(slot).getLong(positionOf(slot) + 8);
+    }
+
+    /**
+     * Returns the home slot of a key.
+     *
+     * @param key the key to hash
+     * @return the slot the probe sequence for key starts at
+     */
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the slot holding a key that is not EMPTY or TOMBSTONE.
+     *
+     * @param key the key to search for
+     * @return the slot of key, or -(the slot to insert it at) - 1 if it is
+     * not in the table; that is the first tombstone on the way, if any
+     */
+    private int find(long key) {
+        int slot = home(key);
+        int firstTombstone = -1;
+        while (true) {
+            long curr = keyAt(slot);
+            if (curr == key) {
+                return slot;
+            } else if (curr == EMPTY) {
+                return -(firstTombstone >= 0 ? firstTombstone : slot) - 1;
+            } else if (curr == TOMBSTONE && firstTombstone < 0) {
+                firstTombstone = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the header offset of a key stored in the header.
+     *
+     * @param key the key
+     * @return the offset of its entry, -1 if key goes in the table
+     */
+    private static int specialOffset(long key) {
+        if (key == EMPTY) {
+            return EMPTY_KEY_OFFSET;
+        }
+        return key == TOMBSTONE ? TOMBSTONE_KEY_OFFSET : -1;
+    }
+
+    /**
+     * Writes a key known not to be in the index into the first empty slot
+     * of its probe sequence, without touching the counts in the file.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    private void insertNew(long key, long value) {
+        int offset = specialOffset(key);
+        if (offset >= 0) {
+            chunks[0].putLong(offset, value);
+            chunks[0].putLong(offset + 8, 1);
+            size++;
+            return;
+        }
+        int slot = home(key);
+        while (keyAt(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        chunkOf(slot).putLong(positionOf(slot) + 8, value);
+        chunkOf(slot).putLong(positionOf(slot), key);
+        size++;
+    }
+
+    /**
+     * Throws if the index has been closed.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Attempting to use a closed MappedHashIndex");
+        }
+    }
+
+    /**
+     * Marks the file dirty and forces the mark to disk before the first
+     * change since it was last clean.
+     */
+    private void markDirty() {
+        if (!dirty) {
+            chunks[0].putLong(CLEAN_OFFSET, 0);
+            chunks[0].force(0, HEADER_SIZE);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Stores size and tombstones in the header.
+     */
+    private void writeCounts() {
+        chunks[0].putLong(SIZE_OFFSET, size);
+        chunks[0].putLong(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    /**
+     * Adds the given key-value pair to the index, or replaces the value if
+     * the key is already in the index. The table doubles, in a new file, if
+     * the new entry would push it past the max load factor, and is rewritten
+     * at the same size if tombstones are what fills it.
+     *
+     * @param key key to add into the index
+     * @param value value to add into the index
+     * @throws IOException if the table has to grow and the new file can't be
+     * written
+     * @throws IllegalStateException if the table has to grow past
+     * MAX_CAPACITY; the index is left unchanged
+     * @return the old value associated with key, or 0 if the key was not
+     * already in the index
+     */
+    public long put(long key, long value) throws IOException {
+        checkOpen();
+        int offset = specialOffset(key);
+        if (offset >= 0) {
+            markDirty();
+            boolean present = chunks[0].getLong(offset + 8) != 0;
+            long prev = present ? chunks[0].getLong(offset) : 0;
+            chunks[0].putLong(offset, value);
+            chunks[0].putLong(offset + 8, 1);
+            if (!present) {
+                size++;
+                writeCounts();
+            }
+            return prev;
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            markDirty();
+            long prev = valueAt(slot);
+            chunkOf(slot).putLong(positionOf(slot) + 8, value);
+            return prev;
+        }
+        slot = -slot - 1;
+        if (keyAt(slot) == EMPTY && size + tombstones + 1 > MAX_LOAD_FACTOR * capacity) {
+            rehash(capacityFor(size + 1), false);
+            slot = -find(key) - 1;
+        }
+        markDirty();
+        if (keyAt(slot) == TOMBSTONE) {
+            tombstones--;
+        }
+        chunkOf(slot).putLong(positionOf(slot) + 8, value);
+        chunkOf(slot).putLong(positionOf(slot), key);
+        size++;
+        writeCounts();
+        return 0;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws java.util.NoSuchElementException if the key is not in the index
+     * @return the value associated with the given key
+     */
+    public long get(long key) {
+        checkOpen();
+        int offset = specialOffset(key);
+        if (offset >= 0) {
+            if (chunks[0].getLong(offset + 8) == 0) {
+                throw new NoSuchElementException("Attempting to get value from a key not present in the MappedHashIndex");
+            }
+            return chunks[0].getLong(offset);
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the MappedHashIndex");
+        }
+        return valueAt(slot);
+    }
+
+    /**
+     * Returns whether or not the key is in the index.
+     *
+     * @param key the key to search for
+     * @return whether or not the key is in the index
+     */
+    public boolean containsKey(long key) {
+        checkOpen();
+        int offset = specialOffset(key);
+        if (offset >= 0) {
+            return chunks[0].getLong(offset + 8) != 0;
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the index, leaving a
+     * tombstone with a value of 0 in its slot.
+     *
+     * @param key the key to remove
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public long remove(long key) {
+        checkOpen();
+        int offset = specialOffset(key);
+        if (offset >= 0) {
+            if (chunks[0].getLong(offset + 8) == 0) {
+                throw new NoSuchElementException("Cannot remove: provided key is not present in MappedHashIndex");
+            }
+            markDirty();
+            chunks[0].putLong(offset + 8, 0);
+            size--;
+            writeCounts();
+            return chunks[0].getLong(offset);
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in MappedHashIndex");
+        }
+        markDirty();
+        long removed = valueAt(slot);
+        chunkOf(slot).putLong(positionOf(slot), TOMBSTONE);
+        // a later insert into this slot must not be able to surface this
+        // value under its own key after a crash
+        chunkOf(slot).putLong(positionOf(slot) + 8, 0);
+        size--;
+        tombstones++;
+        writeCounts();
+        return removed;
+    }
+
+    /**
+     * Forces every change to disk and marks the file clean, so the next
+     * open does not need to rebuild it.
+     */
+    public void sync() {
+        checkOpen();
+        if (!dirty) {
+            return;
+        }
+        writeCounts();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+        chunks[0].putLong(CLEAN_OFFSET, 1);
+        chunks[0].force(0, HEADER_SIZE);
+        dirty = false;
+    }
+
+    /**
+     * Syncs the index and releases it. Further calls throw.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        sync();
+        closed = true;
+        chunks = null;
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     *
+     * @return number of entries in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the length of the table
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
\ No newline at end of file
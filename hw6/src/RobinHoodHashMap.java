@@ -0,0 +1,352 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An open addressing hash map using Robin Hood linear probing.
+ *
+ * Keys, values and key hashes are stored in flat parallel arrays, so put
+ * allocates nothing and get scans consecutive slots instead of following
+ * MapEntry links. On a collision, an entry that has probed further from its
+ * home slot takes the slot from one that has probed less ("steal from the
+ * rich"), which keeps probe sequences short and evenly sized even at high
+ * load factors. Because of that ordering a lookup can stop as soon as it
+ * reaches an entry closer to home than itself, so misses are cheap too.
+ * Removal shifts the following entries back one slot instead of leaving
+ * tombstones.
+ *
+ * The table length is always a power of two so a slot is found by masking
+ * the hash rather than taking a remainder.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class RobinHoodHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final double maxLoadFactor;
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty map with INITIAL_CAPACITY slots and MAX_LOAD_FACTOR.
+     */
+    public RobinHoodHashMap() {
+        this(INITIAL_CAPACITY, MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param initialCapacity minimum number of slots, rounded up to a power
+     * of two
+     * @param maxLoadFactor the fraction of slots that may be used before the
+     * table doubles
+     * @throws IllegalArgumentException if initialCapacity is not positive or
+     * maxLoadFactor is not strictly between 0 and 1
+     */
+    public RobinHoodHashMap(int initialCapacity, double maxLoadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Attempting to create RobinHoodHashMap with non-positive capacity");
+        }
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("Attempting to create RobinHoodHashMap with load factor outside (0, 1)");
+        }
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Returns the smallest power of two that is at least capacity.
+     *
+     * @param capacity the minimum table length
+     * @return the table length to use
+     */
+    private static int tableSizeFor(int capacity) {
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * Replaces the arrays with empty arrays of the given length.
+     *
+     * @param length the new table length, a power of two
+     */
+    private void allocate(int length) {
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+        hashes = new int[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Scrambles the hash code of key so that keys differing only in their
+     * high bits still land in different slots once the hash is masked.
+     *
+     * @param key the key to hash
+     * @return the spread hash of key
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns how far the entry in a slot is from its home slot.
+     *
+     * @param slot an occupied slot
+     * @return the probe distance of the entry in slot
+     */
+    private int distance(int slot) {
+        return (slot - (hashes[slot] & mask)) & mask;
+    }
+
+    /**
+     * Adds the given key-value pair to the map, or replaces the value if the
+     * key is already in the map. The table doubles first if the new entry
+     * would push it past the max load factor.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to insert null key into RobinHoodHashMap");
+        } else if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into RobinHoodHashMap");
+        }
+        if (size + 1 > maxLoadFactor * keys.length) {
+            resizeBackingTable(2 * keys.length);
+        }
+        int hash = hash(key);
+        int slot = hash & mask;
+        // the key can only be before the first slot that is empty or
+        // closer to home than the key would be
+        for (int dist = 0; keys[slot] != null && distance(slot) >= dist; dist++) {
+            if (hashes[slot] == hash && keys[slot].equals(key)) {
+                V prev = values[slot];
+                values[slot] = value;
+                return prev;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insertFrom(slot, hash, key, value);
+        return null;
+    }
+
+    /**
+     * Places a new entry at slot and pushes the displaced entries further
+     * along their probe sequences, each taking the first slot that is empty
+     * or holds an entry closer to home than itself.
+     *
+     * @param slot an empty slot, or one holding an entry closer to home
+     * than the new entry would be
+     * @param hash the hash of the new key
+     * @param key the new key, known not to be in the map
+     * @param value the new value
+     */
+    private void insertFrom(int slot, int hash, K key, V value) {
+        while (keys[slot] != null) {
+            K displacedKey = keys[slot];
+            V displacedValue = values[slot];
+            int displacedHash = hashes[slot];
+            int dist = distance(slot);
+            keys[slot] = key;
+            values[slot] = value;
+            hashes[slot] = hash;
+            key = displacedKey;
+            value = displacedValue;
+            hash = displacedHash;
+            do {
+                slot = (slot + 1) & mask;
+                dist++;
+            } while (keys[slot] != null && distance(slot) >= dist);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+        size++;
+    }
+
+    /**
+     * Returns the slot holding key.
+     *
+     * @param key the key to search for
+     * @return the slot of key, -1 if the key is not in the map
+     */
+    private int find(K key) {
+        int hash = hash(key);
+        int slot = hash & mask;
+        for (int dist = 0; keys[slot] != null && distance(slot) >= dist; dist++) {
+            if (hashes[slot] == hash && keys[slot].equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Resizes the table to the given length and reinserts every entry.
+     *
+     * @param length new length of the table, rounded up to a power of two
+     * @throws IllegalArgumentException if length is non-positive or less than
+     * the number of entries in the map
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Attempting to resize backing table to non-positive length");
+        }
+        if (length < size) {
+            String message = String.format("Attempting to resize backing table of size %d to length %d", size, length);
+            throw new IllegalArgumentException(message);
+        }
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(tableSizeFor(length));
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            for (int dist = 0; keys[slot] != null && distance(slot) >= dist; dist++) {
+                slot = (slot + 1) & mask;
+            }
+            insertFrom(slot, oldHashes[i], oldKeys[i], oldValues[i]);
+        }
+    }
+
+    /**
+     * Removes the entry with a matching key from the map. The entries after
+     * it in the same cluster are shifted back one slot, so no tombstone is
+     * left behind.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from RobinHoodHashMap");
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Cannot remove: provided key is not present in RobinHoodHashMap");
+        }
+        V removed = values[slot];
+        int next = (slot + 1) & mask;
+        while (keys[next] != null && distance(next) > 0) {
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            hashes[slot] = hashes[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+        hashes[slot] = 0;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the RobinHoodHashMap");
+        }
+        return values[slot];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if RobinHoodHashMap contains null key");
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns a Set of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        Set<K> res = new HashSet<>();
+        for (K key : keys) {
+            if (key != null) {
+                res.add(key);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns a List of the values contained in this map, in slot order.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        List<V> res = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                res.add(values[i]);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Clears the map and resets it to INITIAL_CAPACITY slots.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the length of the table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+}
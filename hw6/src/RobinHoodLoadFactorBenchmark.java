@@ -0,0 +1,116 @@
+import java.util.Random;
+
+/**
+ * Measures RobinHoodHashMap lookups that hit and lookups that miss at load
+ * factors from 0.5 to 0.9.
+ *
+ * For each load factor a map with a fixed number of slots is filled to
+ * that load, with its max load factor set just above it so it never
+ * resizes. Hits get random keys that are in the map; misses ask
+ * containsKey for random keys that are not. Each loop is timed as a whole
+ * with System.nanoTime. The first WARMUP_ROUNDS passes over every load
+ * factor let the JIT compile both paths and are not reported; the timed
+ * rounds are averaged. Run it with
+ *
+ *     java RobinHoodLoadFactorBenchmark [slots] [lookups] [rounds] [seed]
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class RobinHoodLoadFactorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final double[] LOAD_FACTORS = {0.5, 0.6, 0.7, 0.8, 0.9};
+
+    /**
+     * Runs the benchmark and prints one line per load factor.
+     *
+     * @param args optional number of slots, number of lookups of each kind
+     * per round, number of timed rounds and random seed
+     */
+    public static void main(String[] args) {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1332;
+
+        // hit and miss nanos of each load factor
+        long[][] nanos = new long[LOAD_FACTORS.length][2];
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            for (int i = 0; i < LOAD_FACTORS.length; i++) {
+                if (round == WARMUP_ROUNDS) {
+                    nanos[i][0] = 0;
+                    nanos[i][1] = 0;
+                }
+                time(slots, LOAD_FACTORS[i], lookups, new Random(seed + round), nanos[i]);
+            }
+        }
+        System.out.printf("%d slots, %d hits and %d misses per round, %d timed rounds, seed %d%n",
+                slots, lookups, lookups, rounds, seed);
+        for (int i = 0; i < LOAD_FACTORS.length; i++) {
+            double perOp = (double) rounds * lookups;
+            System.out.printf("load %.1f  hit %6.1f ns/op  miss %6.1f ns/op%n", LOAD_FACTORS[i],
+                    nanos[i][0] / perOp, nanos[i][1] / perOp);
+        }
+    }
+
+    /**
+     * Fills a map to the given load factor and times hits and misses on it,
+     * adding the times to nanos.
+     *
+     * @param slots the number of slots in the map, a power of two
+     * @param loadFactor the fraction of slots to fill
+     * @param lookups the number of hits and of misses to time
+     * @param random the source of keys
+     * @param nanos where to add the hit time, at index 0, and the miss time,
+     * at index 1, in nanoseconds
+     */
+    private static void time(int slots, double loadFactor, int lookups, Random random, long[] nanos) {
+        RobinHoodHashMap<Integer, Integer> map = new RobinHoodHashMap<>(slots, loadFactor + 0.01);
+        int entries = (int) (loadFactor * slots);
+        Integer[] keys = new Integer[entries];
+        for (int i = 0; i < entries; i++) {
+            do {
+                keys[i] = random.nextInt();
+            } while (map.put(keys[i], i) != null);
+        }
+        if (map.capacity() != slots) {
+            throw new IllegalStateException("Benchmark map resized to " + map.capacity() + " slots");
+        }
+        Integer[] hits = new Integer[lookups];
+        Integer[] misses = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            hits[i] = keys[random.nextInt(entries)];
+            do {
+                misses[i] = random.nextInt();
+            } while (map.containsKey(misses[i]));
+        }
+
+        long start = System.nanoTime();
+        long sink = 0;
+        for (Integer hit : hits) {
+            sink += map.get(hit);
+        }
+        long hitsDone = System.nanoTime();
+        for (Integer miss : misses) {
+            if (map.containsKey(miss)) {
+                sink++;
+            }
+        }
+        long missesDone = System.nanoTime();
+        nanos[0] += hitsDone - start;
+        nanos[1] += missesDone - hitsDone;
+        consume(sink);
+    }
+
+    /**
+     * Keeps the JIT from dropping the timed lookups as dead code.
+     *
+     * @param sink the sum of the values read
+     */
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,722 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An external chaining hash map whose long chains turn into AVL trees, so a
+ * bucket never costs more than O(log n) to search.
+ *
+ * Ordinary buckets are MapEntry chains like HashMap's. When a put makes a
+ * chain TREEIFY_THRESHOLD long, the bucket is rebuilt as an AVL tree of its
+ * entries ordered by hash and then by compareTo, and when removals shrink a
+ * tree to UNTREEIFY_THRESHOLD entries it goes back to being a chain. Keys
+ * with well spread hashes never build trees, while keys chosen to collide
+ * (hash flooding) cost O(log n) per operation instead of O(n).
+ *
+ * Keys must be Comparable, and compareTo must be consistent with equals.
+ *
+ * @author Parker Hyde
+ * @version 1.0
+ */
+public class TreeifiedHashMap<K extends Comparable<? super K>, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final int TREEIFY_THRESHOLD = 8;
+    public static final int UNTREEIFY_THRESHOLD = 6;
+
+    private MapEntry<K, V>[] table;
+    // trees[i] != null means bucket i is a tree and table[i] is null
+    private TreeBin<K, V>[] trees;
+    private int size;
+
+    /**
+     * Creates an empty map with INITIAL_CAPACITY buckets.
+     */
+    public TreeifiedHashMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Replaces the table with an empty table of the given length.
+     *
+     * @param length the new table length, a power of two
+     */
+    private void allocate(int length) {
+        table = new MapEntry[length];
+        trees = new TreeBin[length];
+    }
+
+    /**
+     * Spreads the hash code of a key so the masked low bits depend on all
+     * of its bits.
+     *
+     * @param key the key to hash
+     * @return the spread hash
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Adds the given key-value pair to the map, or replaces the value if the
+     * key is already in the map. A chain that reaches TREEIFY_THRESHOLD
+     * entries is turned into a tree.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to insert null key into TreeifiedHashMap");
+        } else if (value == null) {
+            throw new IllegalArgumentException("Attempting to insert null value into TreeifiedHashMap");
+        }
+        if (size + 1 > MAX_LOAD_FACTOR * table.length) {
+            resizeBackingTable(2 * table.length);
+        }
+        int hash = hash(key);
+        int bucket = hash & (table.length - 1);
+        if (trees[bucket] != null) {
+            V prev = trees[bucket].put(hash, key, value);
+            if (prev == null) {
+                size++;
+            }
+            return prev;
+        }
+        int length = 0;
+        for (MapEntry<K, V> curr = table[bucket]; curr != null; curr = curr.getNext()) {
+            if (curr.getKey().equals(key)) {
+                V prev = curr.getValue();
+                curr.setValue(value);
+                return prev;
+            }
+            length++;
+        }
+        table[bucket] = new MapEntry<>(key, value, table[bucket]);
+        size++;
+        if (length + 1 >= TREEIFY_THRESHOLD) {
+            treeify(bucket);
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the chain in a bucket with a tree of the same entries.
+     *
+     * @param bucket the bucket to convert
+     */
+    private void treeify(int bucket) {
+        TreeBin<K, V> tree = new TreeBin<>();
+        for (MapEntry<K, V> curr = table[bucket]; curr != null; curr = curr.getNext()) {
+            tree.put(hash(curr.getKey()), curr.getKey(), curr.getValue());
+        }
+        table[bucket] = null;
+        trees[bucket] = tree;
+    }
+
+    /**
+     * Replaces the tree in a bucket with a chain of the same entries.
+     *
+     * @param bucket the bucket to convert
+     */
+    private void untreeify(int bucket) {
+        List<TreeNode<K, V>> nodes = new ArrayList<>(trees[bucket].size);
+        trees[bucket].inorder(trees[bucket].root, nodes);
+        trees[bucket] = null;
+        table[bucket] = chain(nodes);
+    }
+
+    /**
+     * Links tree nodes into a chain of new MapEntries, keeping their order.
+     *
+     * @param nodes the nodes to link
+     * @return the head of the chain
+     */
+    private static <K extends Comparable<? super K>, V> MapEntry<K, V> chain(List<TreeNode<K, V>> nodes) {
+        MapEntry<K, V> head = null;
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            head = new MapEntry<>(nodes.get(i).key, nodes.get(i).value, head);
+        }
+        return head;
+    }
+
+    /**
+     * Resizes the table to the given length. Chain entries are relinked into
+     * their new buckets. Each tree splits into the two buckets its entries
+     * can move to; a half that is UNTREEIFY_THRESHOLD entries or shorter
+     * becomes a chain and a longer one is rebuilt as a balanced tree straight
+     * from its sorted nodes.
+     *
+     * @param length new length of the table, a power of two at least twice
+     * the old length
+     */
+    private void resizeBackingTable(int length) {
+        MapEntry<K, V>[] oldTable = table;
+        TreeBin<K, V>[] oldTrees = trees;
+        allocate(length);
+        int mask = length - 1;
+        for (int i = 0; i < oldTable.length; i++) {
+            MapEntry<K, V> curr = oldTable[i];
+            while (curr != null) {
+                MapEntry<K, V> next = curr.getNext();
+                int bucket = hash(curr.getKey()) & mask;
+                curr.setNext(table[bucket]);
+                table[bucket] = curr;
+                curr = next;
+            }
+            if (oldTrees[i] != null) {
+                List<TreeNode<K, V>> nodes = new ArrayList<>(oldTrees[i].size);
+                oldTrees[i].inorder(oldTrees[i].root, nodes);
+                List<TreeNode<K, V>> low = new ArrayList<>();
+                List<TreeNode<K, V>> high = new ArrayList<>();
+                for (TreeNode<K, V> node : nodes) {
+                    (((node.hash & mask) == i) ? low : high).add(node);
+                }
+                place(i, low);
+                place(i + oldTable.length, high);
+            }
+        }
+    }
+
+    /**
+     * Puts sorted tree nodes into an empty bucket as a chain or a tree,
+     * depending on how many there are.
+     *
+     * @param bucket the empty bucket
+     * @param nodes the nodes, in tree order
+     */
+    private void place(int bucket, List<TreeNode<K, V>> nodes) {
+        if (nodes.size() <= UNTREEIFY_THRESHOLD) {
+            table[bucket] = chain(nodes);
+        } else {
+            TreeBin<K, V> tree = new TreeBin<>();
+            tree.root = TreeBin.build(nodes, 0, nodes.size());
+            tree.size = nodes.size();
+            trees[bucket] = tree;
+        }
+    }
+
+    /**
+     * Removes the entry with a matching key from the map. A tree that
+     * shrinks to UNTREEIFY_THRESHOLD entries is turned back into a chain.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to remove null key from TreeifiedHashMap");
+        }
+        int hash = hash(key);
+        int bucket = hash & (table.length - 1);
+        if (trees[bucket] != null) {
+            V removed = trees[bucket].remove(hash, key);
+            if (removed == null) {
+                throw new NoSuchElementException("Cannot remove: provided key is not present in TreeifiedHashMap");
+            }
+            size--;
+            if (trees[bucket].size <= UNTREEIFY_THRESHOLD) {
+                untreeify(bucket);
+            }
+            return removed;
+        }
+        MapEntry<K, V> prev = null;
+        for (MapEntry<K, V> curr = table[bucket]; curr != null; curr = curr.getNext()) {
+            if (curr.getKey().equals(key)) {
+                if (prev == null) {
+                    table[bucket] = curr.getNext();
+                } else {
+                    prev.setNext(curr.getNext());
+                }
+                size--;
+                return curr.getValue();
+            }
+            prev = curr;
+        }
+        throw new NoSuchElementException("Cannot remove: provided key is not present in TreeifiedHashMap");
+    }
+
+    /**
+     * Returns the value for key, searching the tree or chain of its bucket.
+     *
+     * @param key the key to search for
+     * @return the value associated with key, null if it is not in the map
+     */
+    private V find(K key) {
+        int hash = hash(key);
+        int bucket = hash & (table.length - 1);
+        if (trees[bucket] != null) {
+            return trees[bucket].get(hash, key);
+        }
+        for (MapEntry<K, V> curr = table[bucket]; curr != null; curr = curr.getNext()) {
+            if (curr.getKey().equals(key)) {
+                return curr.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to get value for null key");
+        }
+        V value = find(key);
+        if (value == null) {
+            throw new NoSuchElementException("Attempting to get value from a key not present in the TreeifiedHashMap");
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Attempting to check if TreeifiedHashMap contains null key");
+        }
+        return find(key) != null;
+    }
+
+    /**
+     * Returns a Set of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        List<TreeNode<K, V>> nodes = new ArrayList<>();
+        for (int i = 0; i < table.length; i++) {
+            for (MapEntry<K, V> curr = table[i]; curr != null; curr = curr.getNext()) {
+                keys.add(curr.getKey());
+            }
+            if (trees[i] != null) {
+                nodes.clear();
+                trees[i].inorder(trees[i].root, nodes);
+                for (TreeNode<K, V> node : nodes) {
+                    keys.add(node.key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a List of the values contained in this map, bucket by bucket.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        List<TreeNode<K, V>> nodes = new ArrayList<>();
+        for (int i = 0; i < table.length; i++) {
+            for (MapEntry<K, V> curr = table[i]; curr != null; curr = curr.getNext()) {
+                values.add(curr.getValue());
+            }
+            if (trees[i] != null) {
+                nodes.clear();
+                trees[i].inorder(trees[i].root, nodes);
+                for (TreeNode<K, V> node : nodes) {
+                    values.add(node.value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns how many buckets hold each number of entries. Tree buckets
+     * count their entries like chains do.
+     *
+     * @return an array whose element i is the number of buckets holding i
+     * entries, as long as the longest bucket plus one
+     */
+    public int[] chainLengthHistogram() {
+        int[] lengths = new int[table.length];
+        int longest = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (trees[i] != null) {
+                lengths[i] = trees[i].size;
+            } else {
+                for (MapEntry<K, V> curr = table[i]; curr != null; curr = curr.getNext()) {
+                    lengths[i]++;
+                }
+            }
+            longest = Math.max(longest, lengths[i]);
+        }
+        int[] histogram = new int[longest + 1];
+        for (int length : lengths) {
+            histogram[length]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the number of buckets that are currently trees.
+     *
+     * @return the number of tree buckets
+     */
+    public int treeBinCount() {
+        int count = 0;
+        for (TreeBin<K, V> tree : trees) {
+            if (tree != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Clears the map and resets it to INITIAL_CAPACITY buckets.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of buckets in the table.
+     *
+     * @return the length of the table
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * A node of a tree bucket, holding one entry.
+     */
+    private static class TreeNode<K extends Comparable<? super K>, V> {
+        private final int hash;
+        private final K key;
+        private V value;
+        private TreeNode<K, V> left;
+        private TreeNode<K, V> right;
+        private int height;
+
+        /**
+         * Creates a leaf node.
+         *
+         * @param hash the spread hash of key
+         * @param key the key
+         * @param value the value
+         */
+        private TreeNode(int hash, K key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * An AVL tree of the entries in one bucket, ordered by hash and then by
+     * key. The balancing follows the hw7 AVL: heights are recalculated on
+     * the way back up and any node whose children differ in height by two
+     * is fixed with a single or double rotation.
+     */
+    private static class TreeBin<K extends Comparable<? super K>, V> {
+        private TreeNode<K, V> root;
+        private int size;
+        // value replaced or removed by the last put or remove, null if none
+        private V found;
+
+        /**
+         * Compares a hash and key with a node's.
+         *
+         * @param hash the spread hash of key
+         * @param key the key
+         * @param node the node to compare with
+         * @return negative, zero or positive as the key orders before, equal
+         * to or after the node's key
+         */
+        private static <K extends Comparable<? super K>> int compare(int hash, K key, TreeNode<K, ?> node) {
+            if (hash != node.hash) {
+                return Integer.compare(hash, node.hash);
+            }
+            return key.compareTo(node.key);
+        }
+
+        /**
+         * Adds or replaces the value for key.
+         *
+         * @param hash the spread hash of key
+         * @param key the key
+         * @param value the value
+         * @return the replaced value, null if the key is new
+         */
+        private V put(int hash, K key, V value) {
+            found = null;
+            root = put(root, hash, key, value);
+            if (found == null) {
+                size++;
+            }
+            V prev = found;
+            found = null;
+            return prev;
+        }
+
+        /**
+         * Recursively adds key below curr.
+         *
+         * @param curr the root of the subtree
+         * @param hash the spread hash of key
+         * @param key the key
+         * @param value the value
+         * @return the root of the balanced subtree
+         */
+        private TreeNode<K, V> put(TreeNode<K, V> curr, int hash, K key, V value) {
+            if (curr == null) {
+                return new TreeNode<>(hash, key, value);
+            }
+            int cmp = compare(hash, key, curr);
+            if (cmp == 0) {
+                found = curr.value;
+                curr.value = value;
+                return curr;
+            } else if (cmp < 0) {
+                curr.left = put(curr.left, hash, key, value);
+            } else {
+                curr.right = put(curr.right, hash, key, value);
+            }
+            return balance(curr);
+        }
+
+        /**
+         * Returns the value for key.
+         *
+         * @param hash the spread hash of key
+         * @param key the key
+         * @return the value, null if key is not in the tree
+         */
+        private V get(int hash, K key) {
+            TreeNode<K, V> curr = root;
+            while (curr != null) {
+                int cmp = compare(hash, key, curr);
+                if (cmp == 0) {
+                    return curr.value;
+                }
+                curr = cmp < 0 ? curr.left : curr.right;
+            }
+            return null;
+        }
+
+        /**
+         * Removes key from the tree.
+         *
+         * @param hash the spread hash of key
+         * @param key the key
+         * @return the removed value, null if key is not in the tree
+         */
+        private V remove(int hash, K key) {
+            found = null;
+            root = remove(root, hash, key);
+            if (found != null) {
+                size--;
+            }
+            V removed = found;
+            found = null;
+            return removed;
+        }
+
+        /**
+         * Recursively removes key from below curr, replacing a node with two
+         * children by its successor.
+         *
+         * @param curr the root of the subtree
+         * @param hash the spread hash of key
+         * @param key the key
+         * @return the root of the balanced subtree
+         */
+        private TreeNode<K, V> remove(TreeNode<K, V> curr, int hash, K key) {
+            if (curr == null) {
+                return null;
+            }
+            int cmp = compare(hash, key, curr);
+            if (cmp < 0) {
+                curr.left = remove(curr.left, hash, key);
+            } else if (cmp > 0) {
+                curr.right = remove(curr.right, hash, key);
+            } else {
+                found = curr.value;
+                if (curr.left == null) {
+                    return curr.right;
+                } else if (curr.right == null) {
+                    return curr.left;
+                }
+                TreeNode<K, V> successor = curr.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                successor.right = removeMin(curr.right);
+                successor.left = curr.left;
+                curr = successor;
+            }
+            return balance(curr);
+        }
+
+        /**
+         * Removes the leftmost node below curr.
+         *
+         * @param curr the root of the subtree
+         * @return the root of the balanced subtree
+         */
+        private TreeNode<K, V> removeMin(TreeNode<K, V> curr) {
+            if (curr.left == null) {
+                return curr.right;
+            }
+            curr.left = removeMin(curr.left);
+            return balance(curr);
+        }
+
+        /**
+         * Returns the height of a node. null nodes have height -1.
+         *
+         * @param node the node
+         * @return the height of node
+         */
+        private static int height(TreeNode<?, ?> node) {
+            return node == null ? -1 : node.height;
+        }
+
+        /**
+         * Updates the height of a node from its children.
+         *
+         * @param node the node to update
+         */
+        private static void calculate(TreeNode<?, ?> node) {
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+        }
+
+        /**
+         * Returns how much taller the left subtree of a node is than the
+         * right.
+         *
+         * @param node the node
+         * @return the balance factor of node
+         */
+        private static int balanceFactor(TreeNode<?, ?> node) {
+            return height(node.left) - height(node.right);
+        }
+
+        /**
+         * Recalculates the height of a node and rotates it if it is out of
+         * balance.
+         *
+         * @param node the node to balance
+         * @return the root of the balanced subtree
+         */
+        private static <K extends Comparable<? super K>, V> TreeNode<K, V> balance(TreeNode<K, V> node) {
+            calculate(node);
+            int bf = balanceFactor(node);
+            if (bf > 1) {
+                if (balanceFactor(node.left) < 0) {
+                    // Left-Right
+                    node.left = rotateLeft(node.left);
+                }
+                return rotateRight(node);
+            } else if (bf < -1) {
+                if (balanceFactor(node.right) > 0) {
+                    // Right-Left
+                    node.right = rotateRight(node.right);
+                }
+                return rotateLeft(node);
+            }
+            return node;
+        }
+
+        /**
+         * Rotates a node left, making its right child the subtree root.
+         *
+         * @param parent the node to rotate
+         * @return the new subtree root
+         */
+        private static <K extends Comparable<? super K>, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> parent) {
+            TreeNode<K, V> child = parent.right;
+            parent.right = child.left;
+            child.left = parent;
+            calculate(parent);
+            calculate(child);
+            return child;
+        }
+
+        /**
+         * Rotates a node right, making its left child the subtree root.
+         *
+         * @param parent the node to rotate
+         * @return the new subtree root
+         */
+        private static <K extends Comparable<? super K>, V> TreeNode<K, V> rotateRight(TreeNode<K, V> parent) {
+            TreeNode<K, V> child = parent.left;
+            parent.left = child.right;
+            child.right = parent;
+            calculate(parent);
+            calculate(child);
+            return child;
+        }
+
+        /**
+         * Adds the nodes below curr to a list in tree order.
+         *
+         * @param curr the root of the subtree
+         * @param nodes the list to add to
+         */
+        private void inorder(TreeNode<K, V> curr, List<TreeNode<K, V>> nodes) {
+            if (curr == null) {
+                return;
+            }
+            inorder(curr.left, nodes);
+            nodes.add(curr);
+            inorder(curr.right, nodes);
+        }
+
+        /**
+         * Builds a perfectly balanced tree from sorted nodes, reusing them.
+         *
+         * @param nodes the nodes, in tree order
+         * @param from index of the first node, inclusive
+         * @param to index of the last node, exclusive
+         * @return the root of the built subtree
+         */
+        private static <K extends Comparable<? super K>, V> TreeNode<K, V> build(
+                List<TreeNode<K, V>> nodes, int from, int to) {
+            if (from >= to) {
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            TreeNode<K, V> node = nodes.get(mid);
+            node.left = build(nodes, from, mid);
+            node.right = build(nodes, mid + 1, to);
+            calculate(node);
+            return node;
+        }
+    }
+}
\ No newline at end of file